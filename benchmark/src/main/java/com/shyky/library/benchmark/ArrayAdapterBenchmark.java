@@ -0,0 +1,123 @@
+package com.shyky.library.benchmark;
+
+import android.content.Context;
+import android.support.annotation.Nullable;
+import android.support.v7.widget.RecyclerView;
+
+import com.shyky.library.adapter.ArrayAdapter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ArrayAdapter}的修改方法和{@link ArrayAdapter#getPosition(Object)}的性能测试
+ * <p>每次修改之后都会撤销，列表的长度保持不变。Adapter注册了一个观察者，修改时的通知和显示在RecyclerView中时一样会被分发</p>
+ *
+ * @author Shyky
+ * @version 1.0
+ * @date 2026/10/18
+ * @since 1.3
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ArrayAdapterBenchmark {
+    @Param({"100", "10000", "1000000"})
+    public int size;
+
+    private ArrayAdapter<Item> adapter;
+    private ArrayAdapter<Item> keyedAdapter;
+    private Item middleItem;
+    private Item extraItem;
+    private List<Item> extraItems;
+
+    @Setup
+    public void setUp() {
+        final Context context = new Context();
+        final List<Item> items = Item.createList(size);
+        adapter = new ArrayAdapter<>(context, 0, new ArrayList<>(items));
+        adapter.registerAdapterDataObserver(new RecyclerView.AdapterDataObserver() {
+        });
+        keyedAdapter = new ArrayAdapter<>(context, 0, new ArrayList<>(items));
+        keyedAdapter.setKeyExtractor(new ArrayAdapter.KeyExtractor<Item>() {
+            @Override
+            public long getKey(@Nullable Item item) {
+                return item == null ? -1 : item.id;
+            }
+        });
+        middleItem = adapter.getItem(size / 2);
+        extraItem = Item.create(size);
+        extraItems = Collections.singletonList(extraItem);
+        // 第一次查找时建立位置索引
+        keyedAdapter.getPosition(middleItem);
+    }
+
+    /**
+     * 在末尾添加后再删除，删除时需要从头查找
+     */
+    @Benchmark
+    public int addAndRemove() {
+        adapter.add(extraItem);
+        adapter.remove(extraItem);
+        return adapter.getItemCount();
+    }
+
+    /**
+     * 在开头插入后再删除，两次都需要移动所有元素
+     */
+    @Benchmark
+    public int insertFirstAndRemove() {
+        adapter.insert(extraItem, 0);
+        adapter.remove(extraItem);
+        return adapter.getItemCount();
+    }
+
+    @Benchmark
+    public int getPosition() {
+        return adapter.getPosition(middleItem);
+    }
+
+    @Benchmark
+    public int getPositionWithKeyExtractor() {
+        return keyedAdapter.getPosition(middleItem);
+    }
+
+    /**
+     * 添加和删除单个item时直接修改位置索引，查找时不需要重新建立
+     */
+    @Benchmark
+    public int addAndGetPositionWithKeyExtractor() {
+        keyedAdapter.add(extraItem);
+        final int position = keyedAdapter.getPosition(middleItem);
+        keyedAdapter.remove(extraItem);
+        return position;
+    }
+
+    /**
+     * addAll()之后位置索引失效，第一次查找需要重新建立，之后的删除直接修改重新建立的索引
+     */
+    @Benchmark
+    public int addAllAndGetPositionWithKeyExtractor() {
+        keyedAdapter.addAll(extraItems);
+        final int position = keyedAdapter.getPosition(middleItem);
+        keyedAdapter.remove(extraItem);
+        return position;
+    }
+}
@@ -0,0 +1,77 @@
+package com.shyky.library.benchmark;
+
+import android.content.Context;
+import android.support.v7.widget.RecyclerView;
+
+import com.shyky.library.adapter.ArrayAdapter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ArrayAdapter}的过滤的性能测试
+ * <p>在JVM上{@link android.widget.Filter#filter(CharSequence)}在当前线程中同步执行，
+ * 测试的是ArrayFilter的performFiltering()和publishResults()的总耗时。
+ * 每次使用和上一次不同的前缀，上一次的结果不能被复用</p>
+ *
+ * @author Shyky
+ * @version 1.0
+ * @date 2026/10/18
+ * @since 1.3
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ArrayFilterBenchmark {
+    private static final String[] PREFIXES = {"al", "br", "ch", "de"};
+    private static final String[] LONGER_PREFIXES = {"alp", "bra", "cha", "del"};
+
+    @Param({"100", "10000", "1000000"})
+    public int size;
+    @Param({"false", "true"})
+    public boolean prefixIndex;
+
+    private ArrayAdapter<Item> adapter;
+    private int prefixCursor;
+
+    @Setup
+    public void setUp() {
+        adapter = new ArrayAdapter<>(new Context(), 0, Item.createList(size));
+        adapter.registerAdapterDataObserver(new RecyclerView.AdapterDataObserver() {
+        });
+        adapter.setFilterIndexEnabled(prefixIndex);
+        // 第一次过滤时复制原始数据，开启索引时还会建立索引
+        adapter.getFilter().filter(PREFIXES[PREFIXES.length - 1]);
+    }
+
+    @Benchmark
+    public int filter() {
+        adapter.getFilter().filter(PREFIXES[prefixCursor++ & (PREFIXES.length - 1)]);
+        return adapter.getItemCount();
+    }
+
+    /**
+     * 先用两个字母的前缀过滤，再追加一个字母，第二次只需要检查第一次匹配的item
+     */
+    @Benchmark
+    public int filterNarrowing() {
+        final int index = prefixCursor++ & (PREFIXES.length - 1);
+        adapter.getFilter().filter(PREFIXES[index]);
+        adapter.getFilter().filter(LONGER_PREFIXES[index]);
+        return adapter.getItemCount();
+    }
+}
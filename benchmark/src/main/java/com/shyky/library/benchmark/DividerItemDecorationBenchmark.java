@@ -0,0 +1,97 @@
+package com.shyky.library.benchmark;
+
+import android.content.Context;
+import android.graphics.Rect;
+import android.graphics.drawable.ColorDrawable;
+import android.support.v7.widget.RecyclerView;
+import android.view.View;
+import android.widget.FrameLayout;
+
+import com.shyky.library.adapter.HeaderAndFooterWrapperAdapter;
+import com.shyky.library.view.widget.DividerItemDecoration;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link DividerItemDecoration#getItemOffsets(Rect, View, RecyclerView, RecyclerView.State)}的性能测试
+ * <p>每次调用计算一屏{@value #VISIBLE_COUNT}个子view的偏移量，计算前先将这些子view绑定到下一屏的位置，
+ * 被包装的Adapter绑定时什么也不做。可以选择是否使用按view type设置的规则</p>
+ *
+ * @author Shyky
+ * @version 1.0
+ * @date 2026/10/18
+ * @since 1.3
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class DividerItemDecorationBenchmark {
+    private static final int VISIBLE_COUNT = 16;
+
+    @Param({"100", "10000", "1000000"})
+    public int size;
+    @Param({"false", "true"})
+    public boolean rules;
+
+    private DividerItemDecoration decoration;
+    private RecyclerView recyclerView;
+    private final RecyclerView.State state = new RecyclerView.State();
+    private final RecyclerView.ViewHolder[] holders = new RecyclerView.ViewHolder[VISIBLE_COUNT];
+    private final Rect outRect = new Rect();
+    private int firstPosition = 1;
+
+    @Setup
+    public void setUp() {
+        final Context context = new Context();
+        final RecyclerView.Adapter adapter = new HeaderAndFooterWrapperAdapter(context,
+                Collections.singletonList(new View(context)), Collections.<View>emptyList(), new SyntheticAdapter(size));
+        recyclerView = new RecyclerView(context);
+        recyclerView.setAdapter(adapter);
+
+        decoration = new DividerItemDecoration(context, DividerItemDecoration.VERTICAL);
+        decoration.setDrawable(new ColorDrawable(0xffcccccc));
+        decoration.setDividerSize(2);
+        if (rules) {
+            decoration.addRule(0, 1, new ColorDrawable(0xff000000), 4);
+            decoration.addNoDividerRule(2, DividerItemDecoration.ANY_TYPE);
+            decoration.addNoDividerRule(DividerItemDecoration.ANY_TYPE, DividerItemDecoration.NO_NEXT_TYPE);
+        }
+
+        final FrameLayout parent = new FrameLayout(context);
+        for (int i = 0; i < VISIBLE_COUNT; i++) {
+            holders[i] = adapter.createViewHolder(parent, adapter.getItemViewType(1));
+        }
+    }
+
+    @Benchmark
+    public Rect getItemOffsets() {
+        final RecyclerView.Adapter adapter = recyclerView.getAdapter();
+        final int itemCount = adapter.getItemCount();
+        if (firstPosition + VISIBLE_COUNT > itemCount) {
+            // 从第一个item开始，header的偏移量没有意义
+            firstPosition = 1;
+        }
+        for (int i = 0; i < VISIBLE_COUNT; i++) {
+            adapter.bindViewHolder(holders[i], firstPosition + i);
+            decoration.getItemOffsets(outRect, holders[i].itemView, recyclerView, state);
+        }
+        firstPosition += VISIBLE_COUNT;
+        return outRect;
+    }
+}
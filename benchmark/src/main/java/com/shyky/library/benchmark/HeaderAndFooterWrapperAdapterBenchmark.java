@@ -0,0 +1,113 @@
+package com.shyky.library.benchmark;
+
+import android.content.Context;
+import android.support.v7.widget.RecyclerView;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+
+import com.shyky.library.adapter.HeaderAndFooterWrapperAdapter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link HeaderAndFooterWrapperAdapter}的位置转换和view type查找的性能测试
+ * <p>被包装的Adapter绑定时什么也不做，测试的只是包装本身的开销。每次调用使用不同的位置，依次经过header、item和footer</p>
+ *
+ * @author Shyky
+ * @version 1.0
+ * @date 2026/10/18
+ * @since 1.3
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class HeaderAndFooterWrapperAdapterBenchmark {
+    private static final int HEADER_COUNT = 3;
+    private static final int FOOTER_COUNT = 2;
+    /**
+     * 与列表长度互质的步长，使连续的调用访问分散的位置
+     */
+    private static final int STRIDE = 7919;
+
+    @Param({"100", "10000", "1000000"})
+    public int size;
+
+    private SyntheticAdapter innerAdapter;
+    private HeaderAndFooterWrapperAdapter wrapperAdapter;
+    private RecyclerView.ViewHolder itemHolder;
+    private int itemCount;
+    private int position;
+
+    @Setup
+    public void setUp() {
+        final Context context = new Context();
+        final List<View> headerViews = new ArrayList<>();
+        for (int i = 0; i < HEADER_COUNT; i++) {
+            headerViews.add(new View(context));
+        }
+        final List<View> footerViews = new ArrayList<>();
+        for (int i = 0; i < FOOTER_COUNT; i++) {
+            footerViews.add(new View(context));
+        }
+        innerAdapter = new SyntheticAdapter(size);
+        wrapperAdapter = new HeaderAndFooterWrapperAdapter(context, headerViews, footerViews, innerAdapter);
+        wrapperAdapter.registerAdapterDataObserver(new RecyclerView.AdapterDataObserver() {
+        });
+        final ViewGroup parent = new FrameLayout(context);
+        itemHolder = wrapperAdapter.createViewHolder(parent, wrapperAdapter.getItemViewType(HEADER_COUNT));
+        itemCount = wrapperAdapter.getItemCount();
+    }
+
+    private int nextPosition() {
+        position += STRIDE;
+        if (position >= itemCount) {
+            position %= itemCount;
+        }
+        return position;
+    }
+
+    @Benchmark
+    public int getItemViewType() {
+        return wrapperAdapter.getItemViewType(nextPosition());
+    }
+
+    @Benchmark
+    public int getItemCount() {
+        return wrapperAdapter.getItemCount();
+    }
+
+    /**
+     * 将位置转换为被包装的Adapter中的位置后绑定
+     */
+    @Benchmark
+    public RecyclerView.ViewHolder bindItem() {
+        wrapperAdapter.onBindViewHolder(itemHolder, HEADER_COUNT + nextPosition() % size);
+        return itemHolder;
+    }
+
+    /**
+     * 被包装的Adapter发出的通知加上header的数量后转发
+     */
+    @Benchmark
+    public void notifyInnerItemChanged() {
+        innerAdapter.notifyItemChanged(nextPosition() % size);
+    }
+}
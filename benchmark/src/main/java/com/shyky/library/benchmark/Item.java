@@ -0,0 +1,48 @@
+package com.shyky.library.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 测试用的列表item
+ * <p>显示文字由两个单词和序号组成，每个单词以其开头两个字母为前缀的item约占八分之一</p>
+ *
+ * @author Shyky
+ * @version 1.0
+ * @date 2026/10/18
+ * @since 1.3
+ */
+final class Item {
+    private static final String[] WORDS = {
+            "alpha", "bravo", "charlie", "delta", "echo", "foxtrot", "golf", "hotel",
+            "india", "juliet", "kilo", "lima", "mike", "november", "oscar", "papa"
+    };
+
+    final long id;
+    private final String text;
+
+    private Item(long id, String text) {
+        this.id = id;
+        this.text = text;
+    }
+
+    /**
+     * 创建指定数量的item，每次调用的结果都相同
+     */
+    static List<Item> createList(int size) {
+        final List<Item> items = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            items.add(new Item(i, WORDS[i % WORDS.length] + " " + WORDS[(i / WORDS.length) % WORDS.length] + " " + i));
+        }
+        return items;
+    }
+
+    static Item create(long id) {
+        return new Item(id, "extra " + id);
+    }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+}
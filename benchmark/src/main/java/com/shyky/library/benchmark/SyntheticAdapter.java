@@ -0,0 +1,43 @@
+package com.shyky.library.benchmark;
+
+import android.support.v7.widget.RecyclerView;
+import android.view.View;
+import android.view.ViewGroup;
+
+/**
+ * 只有数量和view type的Adapter，绑定时什么也不做，用于测试包装Adapter和ItemDecoration本身的开销
+ *
+ * @author Shyky
+ * @version 1.0
+ * @date 2026/10/18
+ * @since 1.3
+ */
+final class SyntheticAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
+    static final int VIEW_TYPE_COUNT = 3;
+
+    private final int size;
+
+    SyntheticAdapter(int size) {
+        this.size = size;
+    }
+
+    @Override
+    public RecyclerView.ViewHolder onCreateViewHolder(ViewGroup parent, int viewType) {
+        return new RecyclerView.ViewHolder(new View(parent.getContext())) {
+        };
+    }
+
+    @Override
+    public void onBindViewHolder(RecyclerView.ViewHolder holder, int position) {
+    }
+
+    @Override
+    public int getItemViewType(int position) {
+        return position % VIEW_TYPE_COUNT;
+    }
+
+    @Override
+    public int getItemCount() {
+        return size;
+    }
+}
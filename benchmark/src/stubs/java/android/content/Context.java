@@ -0,0 +1,23 @@
+package android.content;
+
+import android.content.res.Resources;
+import android.content.res.TypedArray;
+
+/**
+ * Unlike the framework class this is not abstract, benchmarks create it directly.
+ */
+public class Context {
+    private final Resources resources = new Resources();
+
+    public Context getApplicationContext() {
+        return this;
+    }
+
+    public Resources getResources() {
+        return resources;
+    }
+
+    public final TypedArray obtainStyledAttributes(int[] attrs) {
+        return new TypedArray(attrs.length);
+    }
+}
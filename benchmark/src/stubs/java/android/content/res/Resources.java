@@ -0,0 +1,11 @@
+package android.content.res;
+
+public class Resources {
+    public String getResourceName(int resId) {
+        return "0x" + Integer.toHexString(resId);
+    }
+
+    public CharSequence[] getTextArray(int id) {
+        return new CharSequence[0];
+    }
+}
@@ -0,0 +1,25 @@
+package android.content.res;
+
+import android.graphics.drawable.Drawable;
+
+/**
+ * Holds no values, every attribute is undefined.
+ */
+public class TypedArray {
+    private final int length;
+
+    public TypedArray(int length) {
+        this.length = length;
+    }
+
+    public int length() {
+        return length;
+    }
+
+    public Drawable getDrawable(int index) {
+        return null;
+    }
+
+    public void recycle() {
+    }
+}
@@ -0,0 +1,7 @@
+package android.graphics;
+
+public class Color {
+    public static int alpha(int color) {
+        return color >>> 24;
+    }
+}
@@ -0,0 +1,74 @@
+package android.graphics;
+
+public class Paint {
+    public enum Style {
+        FILL, STROKE, FILL_AND_STROKE
+    }
+
+    public enum Cap {
+        BUTT, ROUND, SQUARE
+    }
+
+    private int flags;
+    private int color;
+    private float strokeWidth;
+    private float textSize = 12;
+    private float textScaleX = 1;
+    private Style style = Style.FILL;
+    private Cap strokeCap = Cap.BUTT;
+    private Typeface typeface;
+
+    public Paint() {
+    }
+
+    public Paint(int flags) {
+        this.flags = flags;
+    }
+
+    public Paint(Paint paint) {
+        flags = paint.flags;
+        color = paint.color;
+        strokeWidth = paint.strokeWidth;
+        textSize = paint.textSize;
+        textScaleX = paint.textScaleX;
+        style = paint.style;
+        strokeCap = paint.strokeCap;
+        typeface = paint.typeface;
+    }
+
+    public int getFlags() {
+        return flags;
+    }
+
+    public void setColor(int color) {
+        this.color = color;
+    }
+
+    public int getColor() {
+        return color;
+    }
+
+    public void setStrokeWidth(float width) {
+        strokeWidth = width;
+    }
+
+    public void setStyle(Style style) {
+        this.style = style;
+    }
+
+    public void setStrokeCap(Cap cap) {
+        strokeCap = cap;
+    }
+
+    public float getTextSize() {
+        return textSize;
+    }
+
+    public float getTextScaleX() {
+        return textScaleX;
+    }
+
+    public Typeface getTypeface() {
+        return typeface;
+    }
+}
@@ -0,0 +1,26 @@
+package android.graphics.drawable;
+
+import android.graphics.Canvas;
+import android.graphics.Rect;
+
+public abstract class Drawable {
+    private final Rect bounds = new Rect();
+
+    public int getIntrinsicWidth() {
+        return -1;
+    }
+
+    public int getIntrinsicHeight() {
+        return -1;
+    }
+
+    public void setBounds(int left, int top, int right, int bottom) {
+        bounds.set(left, top, right, bottom);
+    }
+
+    public final Rect getBounds() {
+        return bounds;
+    }
+
+    public abstract void draw(Canvas canvas);
+}
@@ -0,0 +1,25 @@
+package android.os;
+
+/**
+ * Runs posted messages right away on the calling thread, delays are ignored.
+ */
+public class Handler {
+    public Handler() {
+    }
+
+    public Handler(Looper looper) {
+    }
+
+    public final boolean post(Runnable r) {
+        r.run();
+        return true;
+    }
+
+    public final boolean postDelayed(Runnable r, long delayMillis) {
+        r.run();
+        return true;
+    }
+
+    public final void removeCallbacks(Runnable r) {
+    }
+}
@@ -0,0 +1,13 @@
+package android.support.v4.view;
+
+import android.view.View;
+
+public class ViewCompat {
+    public static float getTranslationX(View view) {
+        return view.getTranslationX();
+    }
+
+    public static float getTranslationY(View view) {
+        return view.getTranslationY();
+    }
+}
@@ -0,0 +1,36 @@
+package android.support.v7.util;
+
+import android.support.v7.widget.RecyclerView;
+
+/**
+ * Does not compute a diff, the result refreshes the whole list.
+ */
+public class DiffUtil {
+    public static DiffResult calculateDiff(Callback cb) {
+        return new DiffResult();
+    }
+
+    public static DiffResult calculateDiff(Callback cb, boolean detectMoves) {
+        return new DiffResult();
+    }
+
+    public abstract static class Callback {
+        public abstract int getOldListSize();
+
+        public abstract int getNewListSize();
+
+        public abstract boolean areItemsTheSame(int oldItemPosition, int newItemPosition);
+
+        public abstract boolean areContentsTheSame(int oldItemPosition, int newItemPosition);
+
+        public Object getChangePayload(int oldItemPosition, int newItemPosition) {
+            return null;
+        }
+    }
+
+    public static class DiffResult {
+        public void dispatchUpdatesTo(RecyclerView.Adapter adapter) {
+            adapter.notifyDataSetChanged();
+        }
+    }
+}
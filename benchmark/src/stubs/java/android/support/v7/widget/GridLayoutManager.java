@@ -0,0 +1,86 @@
+package android.support.v7.widget;
+
+import android.content.Context;
+
+public class GridLayoutManager extends LinearLayoutManager {
+    private final int spanCount;
+    private SpanSizeLookup spanSizeLookup = new DefaultSpanSizeLookup();
+
+    public GridLayoutManager(Context context, int spanCount) {
+        super(context);
+        this.spanCount = spanCount;
+    }
+
+    public int getSpanCount() {
+        return spanCount;
+    }
+
+    public void setSpanSizeLookup(SpanSizeLookup spanSizeLookup) {
+        this.spanSizeLookup = spanSizeLookup;
+    }
+
+    public SpanSizeLookup getSpanSizeLookup() {
+        return spanSizeLookup;
+    }
+
+    /**
+     * Computes the indices without a cache.
+     */
+    public abstract static class SpanSizeLookup {
+        private boolean cacheSpanIndices;
+
+        public abstract int getSpanSize(int position);
+
+        public void setSpanIndexCacheEnabled(boolean cacheSpanIndices) {
+            this.cacheSpanIndices = cacheSpanIndices;
+        }
+
+        public void invalidateSpanIndexCache() {
+        }
+
+        public boolean isSpanIndexCacheEnabled() {
+            return cacheSpanIndices;
+        }
+
+        public int getSpanIndex(int position, int spanCount) {
+            int span = 0;
+            for (int i = 0; i < position; i++) {
+                final int size = getSpanSize(i);
+                span += size;
+                if (span == spanCount) {
+                    span = 0;
+                } else if (span > spanCount) {
+                    span = size;
+                }
+            }
+            return span + getSpanSize(position) <= spanCount ? span : 0;
+        }
+
+        public int getSpanGroupIndex(int adapterPosition, int spanCount) {
+            int span = 0;
+            int group = 0;
+            for (int i = 0; i < adapterPosition; i++) {
+                final int size = getSpanSize(i);
+                span += size;
+                if (span == spanCount) {
+                    span = 0;
+                    group++;
+                } else if (span > spanCount) {
+                    span = size;
+                    group++;
+                }
+            }
+            if (span + getSpanSize(adapterPosition) > spanCount) {
+                group++;
+            }
+            return group;
+        }
+    }
+
+    public static final class DefaultSpanSizeLookup extends SpanSizeLookup {
+        @Override
+        public int getSpanSize(int position) {
+            return 1;
+        }
+    }
+}
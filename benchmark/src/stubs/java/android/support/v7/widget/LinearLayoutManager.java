@@ -0,0 +1,11 @@
+package android.support.v7.widget;
+
+import android.content.Context;
+
+public class LinearLayoutManager extends RecyclerView.LayoutManager {
+    public static final int HORIZONTAL = 0;
+    public static final int VERTICAL = 1;
+
+    public LinearLayoutManager(Context context) {
+    }
+}
@@ -0,0 +1,285 @@
+package android.support.v7.widget;
+
+import android.content.Context;
+import android.view.View;
+import android.view.ViewGroup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Lays nothing out. Adapters dispatch their notifications to the registered observers, and a view
+ * holder knows the position it was last bound to, which is all the benchmarked code relies on.
+ */
+public class RecyclerView extends ViewGroup {
+    public static final int NO_POSITION = -1;
+    public static final long NO_ID = -1;
+    public static final int INVALID_TYPE = -1;
+
+    private Adapter adapter;
+    private LayoutManager layoutManager;
+
+    public RecyclerView(Context context) {
+        super(context);
+    }
+
+    public void setAdapter(Adapter adapter) {
+        this.adapter = adapter;
+    }
+
+    public Adapter getAdapter() {
+        return adapter;
+    }
+
+    public void setLayoutManager(LayoutManager layoutManager) {
+        this.layoutManager = layoutManager;
+    }
+
+    public LayoutManager getLayoutManager() {
+        return layoutManager;
+    }
+
+    public ViewHolder getChildViewHolder(View child) {
+        return ((LayoutParams) child.getLayoutParams()).mViewHolder;
+    }
+
+    public int getChildAdapterPosition(View child) {
+        return getChildViewHolder(child).getAdapterPosition();
+    }
+
+    public int getChildLayoutPosition(View child) {
+        return getChildViewHolder(child).getLayoutPosition();
+    }
+
+    public void getDecoratedBoundsWithMargins(View view, android.graphics.Rect outBounds) {
+        outBounds.set(0, 0, view.getWidth(), view.getHeight());
+    }
+
+    public abstract static class Adapter<VH extends ViewHolder> {
+        private final ArrayList<AdapterDataObserver> observers = new ArrayList<>();
+        private boolean hasStableIds;
+
+        public abstract VH onCreateViewHolder(ViewGroup parent, int viewType);
+
+        public abstract void onBindViewHolder(VH holder, int position);
+
+        public void onBindViewHolder(VH holder, int position, List<Object> payloads) {
+            onBindViewHolder(holder, position);
+        }
+
+        public final VH createViewHolder(ViewGroup parent, int viewType) {
+            final VH holder = onCreateViewHolder(parent, viewType);
+            holder.mItemViewType = viewType;
+            final LayoutParams params = new LayoutParams(LayoutParams.MATCH_PARENT, LayoutParams.WRAP_CONTENT);
+            params.mViewHolder = holder;
+            holder.itemView.setLayoutParams(params);
+            return holder;
+        }
+
+        public final void bindViewHolder(VH holder, int position) {
+            holder.mPosition = position;
+            onBindViewHolder(holder, position, Collections.<Object>emptyList());
+        }
+
+        public abstract int getItemCount();
+
+        public int getItemViewType(int position) {
+            return 0;
+        }
+
+        public long getItemId(int position) {
+            return NO_ID;
+        }
+
+        public void setHasStableIds(boolean hasStableIds) {
+            if (hasObservers()) {
+                throw new IllegalStateException("Cannot change whether this adapter has stable IDs while the adapter has registered observers.");
+            }
+            this.hasStableIds = hasStableIds;
+        }
+
+        public final boolean hasStableIds() {
+            return hasStableIds;
+        }
+
+        public void onViewRecycled(VH holder) {
+        }
+
+        public boolean onFailedToRecycleView(VH holder) {
+            return false;
+        }
+
+        public void onViewAttachedToWindow(VH holder) {
+        }
+
+        public void onViewDetachedFromWindow(VH holder) {
+        }
+
+        public void onAttachedToRecyclerView(RecyclerView recyclerView) {
+        }
+
+        public void onDetachedFromRecyclerView(RecyclerView recyclerView) {
+        }
+
+        public final boolean hasObservers() {
+            return !observers.isEmpty();
+        }
+
+        public void registerAdapterDataObserver(AdapterDataObserver observer) {
+            observers.add(observer);
+        }
+
+        public void unregisterAdapterDataObserver(AdapterDataObserver observer) {
+            observers.remove(observer);
+        }
+
+        public final void notifyDataSetChanged() {
+            for (int i = observers.size() - 1; i >= 0; i--) {
+                observers.get(i).onChanged();
+            }
+        }
+
+        public final void notifyItemChanged(int position) {
+            notifyItemRangeChanged(position, 1, null);
+        }
+
+        public final void notifyItemChanged(int position, Object payload) {
+            notifyItemRangeChanged(position, 1, payload);
+        }
+
+        public final void notifyItemRangeChanged(int positionStart, int itemCount) {
+            notifyItemRangeChanged(positionStart, itemCount, null);
+        }
+
+        public final void notifyItemRangeChanged(int positionStart, int itemCount, Object payload) {
+            for (int i = observers.size() - 1; i >= 0; i--) {
+                observers.get(i).onItemRangeChanged(positionStart, itemCount, payload);
+            }
+        }
+
+        public final void notifyItemInserted(int position) {
+            notifyItemRangeInserted(position, 1);
+        }
+
+        public final void notifyItemRangeInserted(int positionStart, int itemCount) {
+            for (int i = observers.size() - 1; i >= 0; i--) {
+                observers.get(i).onItemRangeInserted(positionStart, itemCount);
+            }
+        }
+
+        public final void notifyItemRemoved(int position) {
+            notifyItemRangeRemoved(position, 1);
+        }
+
+        public final void notifyItemRangeRemoved(int positionStart, int itemCount) {
+            for (int i = observers.size() - 1; i >= 0; i--) {
+                observers.get(i).onItemRangeRemoved(positionStart, itemCount);
+            }
+        }
+
+        public final void notifyItemMoved(int fromPosition, int toPosition) {
+            for (int i = observers.size() - 1; i >= 0; i--) {
+                observers.get(i).onItemRangeMoved(fromPosition, toPosition, 1);
+            }
+        }
+    }
+
+    public abstract static class ViewHolder {
+        public final View itemView;
+        int mPosition = NO_POSITION;
+        int mItemViewType = INVALID_TYPE;
+
+        public ViewHolder(View itemView) {
+            if (itemView == null) {
+                throw new IllegalArgumentException("itemView may not be null");
+            }
+            this.itemView = itemView;
+        }
+
+        public final int getAdapterPosition() {
+            return mPosition;
+        }
+
+        public final int getLayoutPosition() {
+            return mPosition;
+        }
+
+        public final int getItemViewType() {
+            return mItemViewType;
+        }
+
+        public final boolean isRecyclable() {
+            return true;
+        }
+    }
+
+    public abstract static class AdapterDataObserver {
+        public void onChanged() {
+        }
+
+        public void onItemRangeChanged(int positionStart, int itemCount) {
+        }
+
+        public void onItemRangeChanged(int positionStart, int itemCount, Object payload) {
+            onItemRangeChanged(positionStart, itemCount);
+        }
+
+        public void onItemRangeInserted(int positionStart, int itemCount) {
+        }
+
+        public void onItemRangeRemoved(int positionStart, int itemCount) {
+        }
+
+        public void onItemRangeMoved(int fromPosition, int toPosition, int itemCount) {
+        }
+    }
+
+    public abstract static class LayoutManager {
+        public int getChildCount() {
+            return 0;
+        }
+
+        public View getChildAt(int index) {
+            return null;
+        }
+
+        public void getDecoratedBoundsWithMargins(View view, android.graphics.Rect outBounds) {
+            outBounds.set(0, 0, view.getWidth(), view.getHeight());
+        }
+    }
+
+    public abstract static class ItemDecoration {
+        public void onDraw(android.graphics.Canvas c, RecyclerView parent, State state) {
+        }
+
+        public void onDrawOver(android.graphics.Canvas c, RecyclerView parent, State state) {
+        }
+
+        public void getItemOffsets(android.graphics.Rect outRect, View view, RecyclerView parent, State state) {
+            outRect.set(0, 0, 0, 0);
+        }
+    }
+
+    public static class State {
+        public int getItemCount() {
+            return 0;
+        }
+    }
+
+    public static class LayoutParams extends ViewGroup.MarginLayoutParams {
+        ViewHolder mViewHolder;
+
+        public LayoutParams(int width, int height) {
+            super(width, height);
+        }
+
+        public int getViewAdapterPosition() {
+            return mViewHolder.getAdapterPosition();
+        }
+
+        public int getViewLayoutPosition() {
+            return mViewHolder.getLayoutPosition();
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package android.support.v7.widget;
+
+public class StaggeredGridLayoutManager extends RecyclerView.LayoutManager {
+    public static class LayoutParams extends RecyclerView.LayoutParams {
+        private boolean fullSpan;
+
+        public LayoutParams(int width, int height) {
+            super(width, height);
+        }
+
+        public void setFullSpan(boolean fullSpan) {
+            this.fullSpan = fullSpan;
+        }
+
+        public boolean isFullSpan() {
+            return fullSpan;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package android.text;
+
+public abstract class Layout {
+    public enum Alignment {
+        ALIGN_NORMAL, ALIGN_OPPOSITE, ALIGN_CENTER
+    }
+
+    private final CharSequence text;
+
+    protected Layout(CharSequence text) {
+        this.text = text;
+    }
+
+    public final CharSequence getText() {
+        return text;
+    }
+
+    public abstract int getLineCount();
+}
@@ -0,0 +1,16 @@
+package android.text;
+
+/**
+ * Does not measure the text, it always takes a single line.
+ */
+public class StaticLayout extends Layout {
+    public StaticLayout(CharSequence source, TextPaint paint, int width, Alignment align,
+                        float spacingMult, float spacingAdd, boolean includePad) {
+        super(source);
+    }
+
+    @Override
+    public int getLineCount() {
+        return 1;
+    }
+}
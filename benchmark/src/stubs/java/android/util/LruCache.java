@@ -0,0 +1,56 @@
+package android.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class LruCache<K, V> {
+    private final LinkedHashMap<K, V> map = new LinkedHashMap<>(0, 0.75f, true);
+    private final int maxSize;
+    private int size;
+
+    public LruCache(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public final synchronized V get(K key) {
+        return map.get(key);
+    }
+
+    public final synchronized V put(K key, V value) {
+        final V previous = map.put(key, value);
+        size += sizeOf(key, value);
+        if (previous != null) {
+            size -= sizeOf(key, previous);
+        }
+        trimToSize(maxSize);
+        return previous;
+    }
+
+    public synchronized void trimToSize(int maxSize) {
+        while (size > maxSize && !map.isEmpty()) {
+            final Map.Entry<K, V> eldest = map.entrySet().iterator().next();
+            map.remove(eldest.getKey());
+            size -= sizeOf(eldest.getKey(), eldest.getValue());
+        }
+    }
+
+    public final synchronized V remove(K key) {
+        final V previous = map.remove(key);
+        if (previous != null) {
+            size -= sizeOf(key, previous);
+        }
+        return previous;
+    }
+
+    protected int sizeOf(K key, V value) {
+        return 1;
+    }
+
+    public final void evictAll() {
+        trimToSize(-1);
+    }
+
+    public final synchronized int size() {
+        return size;
+    }
+}
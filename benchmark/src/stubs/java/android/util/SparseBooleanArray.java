@@ -0,0 +1,37 @@
+package android.util;
+
+public class SparseBooleanArray {
+    private final SparseIntArray array = new SparseIntArray();
+
+    public boolean get(int key) {
+        return array.get(key) != 0;
+    }
+
+    public boolean get(int key, boolean valueIfKeyNotFound) {
+        return array.get(key, valueIfKeyNotFound ? 1 : 0) != 0;
+    }
+
+    public void put(int key, boolean value) {
+        array.put(key, value ? 1 : 0);
+    }
+
+    public void delete(int key) {
+        array.delete(key);
+    }
+
+    public int size() {
+        return array.size();
+    }
+
+    public int keyAt(int index) {
+        return array.keyAt(index);
+    }
+
+    public boolean valueAt(int index) {
+        return array.valueAt(index) != 0;
+    }
+
+    public void clear() {
+        array.clear();
+    }
+}
@@ -0,0 +1,74 @@
+package android.view;
+
+import android.content.Context;
+
+public class View {
+    private final Context context;
+    ViewParent parent;
+    private ViewGroup.LayoutParams layoutParams;
+    private Object tag;
+
+    public View(Context context) {
+        this.context = context;
+    }
+
+    public final Context getContext() {
+        return context;
+    }
+
+    public final ViewParent getParent() {
+        return parent;
+    }
+
+    public ViewGroup.LayoutParams getLayoutParams() {
+        return layoutParams;
+    }
+
+    public void setLayoutParams(ViewGroup.LayoutParams params) {
+        layoutParams = params;
+    }
+
+    public Object getTag() {
+        return tag;
+    }
+
+    public void setTag(Object tag) {
+        this.tag = tag;
+    }
+
+    public final int getWidth() {
+        return 0;
+    }
+
+    public final int getHeight() {
+        return 0;
+    }
+
+    public int getPaddingLeft() {
+        return 0;
+    }
+
+    public int getPaddingTop() {
+        return 0;
+    }
+
+    public int getPaddingRight() {
+        return 0;
+    }
+
+    public int getPaddingBottom() {
+        return 0;
+    }
+
+    public float getTranslationX() {
+        return 0;
+    }
+
+    public float getTranslationY() {
+        return 0;
+    }
+
+    public View findViewById(int id) {
+        return null;
+    }
+}
@@ -0,0 +1,70 @@
+package android.view;
+
+import android.content.Context;
+
+import java.util.ArrayList;
+
+public abstract class ViewGroup extends View implements ViewParent {
+    private final ArrayList<View> children = new ArrayList<>();
+
+    public ViewGroup(Context context) {
+        super(context);
+    }
+
+    public void addView(View child) {
+        if (child.parent != null) {
+            throw new IllegalStateException("The specified child already has a parent.");
+        }
+        children.add(child);
+        child.parent = this;
+    }
+
+    public void removeView(View view) {
+        if (children.remove(view)) {
+            view.parent = null;
+        }
+    }
+
+    public void removeAllViews() {
+        for (View child : children) {
+            child.parent = null;
+        }
+        children.clear();
+    }
+
+    public boolean getClipToPadding() {
+        return true;
+    }
+
+    public int getChildCount() {
+        return children.size();
+    }
+
+    public View getChildAt(int index) {
+        return children.get(index);
+    }
+
+    public static class LayoutParams {
+        public static final int MATCH_PARENT = -1;
+        public static final int WRAP_CONTENT = -2;
+
+        public int width;
+        public int height;
+
+        public LayoutParams(int width, int height) {
+            this.width = width;
+            this.height = height;
+        }
+    }
+
+    public static class MarginLayoutParams extends LayoutParams {
+        public int leftMargin;
+        public int topMargin;
+        public int rightMargin;
+        public int bottomMargin;
+
+        public MarginLayoutParams(int width, int height) {
+            super(width, height);
+        }
+    }
+}
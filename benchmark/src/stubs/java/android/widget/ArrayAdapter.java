@@ -0,0 +1,18 @@
+package android.widget;
+
+import android.content.Context;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class ArrayAdapter<T> {
+    private final List<T> objects;
+
+    public ArrayAdapter(Context context, int resource, T[] objects) {
+        this.objects = Arrays.asList(objects);
+    }
+
+    public int getCount() {
+        return objects.size();
+    }
+}
@@ -0,0 +1,27 @@
+package android.widget;
+
+/**
+ * Filters synchronously on the calling thread instead of a worker thread, so
+ * {@link #filter(CharSequence)} returns after the results were published.
+ */
+public abstract class Filter {
+    protected abstract FilterResults performFiltering(CharSequence constraint);
+
+    protected abstract void publishResults(CharSequence constraint, FilterResults results);
+
+    public final void filter(CharSequence constraint) {
+        publishResults(constraint, performFiltering(constraint));
+    }
+
+    public CharSequence convertResultToString(Object resultValue) {
+        return resultValue == null ? "" : resultValue.toString();
+    }
+
+    protected static class FilterResults {
+        public Object values;
+        public int count;
+
+        public FilterResults() {
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package android.widget;
+
+import android.content.Context;
+import android.text.TextPaint;
+import android.view.View;
+
+public class TextView extends View {
+    private final TextPaint paint = new TextPaint();
+    private CharSequence text = "";
+
+    public TextView(Context context) {
+        super(context);
+    }
+
+    public final void setText(CharSequence text) {
+        this.text = text == null ? "" : text;
+    }
+
+    public CharSequence getText() {
+        return text;
+    }
+
+    public TextPaint getPaint() {
+        return paint;
+    }
+
+    public int getCompoundPaddingLeft() {
+        return 0;
+    }
+
+    public int getCompoundPaddingRight() {
+        return 0;
+    }
+
+    public float getLineSpacingMultiplier() {
+        return 1.0f;
+    }
+
+    public float getLineSpacingExtra() {
+        return 0.0f;
+    }
+
+    public boolean getIncludeFontPadding() {
+        return true;
+    }
+}
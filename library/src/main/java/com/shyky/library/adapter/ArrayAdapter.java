@@ -1,11 +1,16 @@
 package com.shyky.library.adapter;
 
 import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
 import android.support.annotation.ArrayRes;
 import android.support.annotation.IdRes;
 import android.support.annotation.LayoutRes;
+import android.support.annotation.MainThread;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
+import android.support.v7.util.DiffUtil;
 import android.support.v7.widget.RecyclerView;
 import android.util.Log;
 import android.view.LayoutInflater;
@@ -20,7 +25,12 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 /**
  * Created by sj151_000 on 2017/3/10.
  */
@@ -40,7 +50,7 @@ import java.util.List;
  * or to have some of data besides toString() results fill the views,
  * override {@link #getView(int, View, ViewGroup)} to return the type of view you want.
  */
-public class ArrayAdapter<T> extends RecyclerView.Adapter implements Filterable {
+public class ArrayAdapter<T> extends RecyclerView.Adapter implements Filterable, BackgroundViewHolderFactory {
     /**
      * Lock used to modify the content of {@link #mObjects}. Any write operation
      * performed on the array should be synchronized on this lock. This lock is also
@@ -70,14 +80,155 @@ public class ArrayAdapter<T> extends RecyclerView.Adapter implements Filterable
      */
     private int mFieldId = 0;
     /**
-     * Indicates whether or not {@link #notifyDataSetChanged()} must be called whenever
+     * Indicates whether or not a change notification must be dispatched whenever
      * {@link #mObjects} is modified.
      */
     private boolean mNotifyOnChange = true;
     // A copy of the original mObjects array, initialized from and then used instead as soon as
     // the mFilter ArrayFilter is used. mObjects will then only contain the filtered values.
-    private ArrayList<T> mOriginalValues;
+    // Both are ChunkedLists from then on, so the filter can take a snapshot without copying them.
+    private ChunkedList<T> mOriginalValues;
     private ArrayFilter mFilter;
+    /**
+     * Optional prefix index of the unfiltered values, see {@link #setFilterIndexEnabled(boolean)}.
+     * Guarded by {@link #mLock}.
+     */
+    private PrefixIndex<T> mPrefixIndex;
+    /**
+     * Whether {@link #mPrefixIndex} reflects the current unfiltered values. Changes that cannot be
+     * applied incrementally reset this flag and the index is rebuilt by the next filtering.
+     */
+    private boolean mPrefixIndexValid;
+    /**
+     * Number of times the content of the array was changed, used by the filter to detect whether
+     * its previous result is still valid. Guarded by {@link #mLock}.
+     */
+    private int mModCount;
+    /**
+     * Maps the items to the stable ids returned by {@link #getItemId(int)}, see
+     * {@link #setKeyExtractor(KeyExtractor)}.
+     */
+    private KeyExtractor<? super T> mKeyExtractor;
+    /**
+     * Maps the key of every displayed item to its position, used by {@link #getPosition(Object)}
+     * when a key extractor is set. Patched in place when a single item is added, inserted or
+     * removed, other changes reset {@link #mPositionsValid} and it is rebuilt on the next lookup.
+     * Guarded by {@link #mLock}.
+     */
+    private LongIntMap mPositions;
+    private boolean mPositionsValid;
+    /**
+     * Optional cache of the toString() of items that are not CharSequences, see
+     * {@link #setDisplayTextCacheSize(int)}.
+     */
+    private volatile DisplayTextCache mDisplayTextCache;
+    /**
+     * Optional worker laying out the texts of upcoming items, see
+     * {@link #setTextLayoutPrefetch(int, int)}.
+     */
+    private TextLayoutPrefetcher mTextLayoutPrefetcher;
+    private final TextLayoutPrefetcher.TextProvider mTextProvider = new TextLayoutPrefetcher.TextProvider() {
+        @Override
+        public int getCount() {
+            return getItemCount();
+        }
+
+        @Override
+        public Object getItem(int position) {
+            return ArrayAdapter.this.getItem(position);
+        }
+
+        @Override
+        public CharSequence getText(Object item) {
+            if (item instanceof CharSequence) {
+                return (CharSequence) item;
+            }
+            final DisplayTextCache displayTextCache = mDisplayTextCache;
+            // Filling the display text cache here keeps the toString() calls off the main thread
+            return displayTextCache != null ? displayTextCache.get(item) : String.valueOf(item);
+        }
+    };
+    /**
+     * Shared executor used to compute the difference between two lists passed to
+     * {@link #submitList(List)} when no executor was set with {@link #setDiffExecutor(Executor)}.
+     */
+    private static Executor sDiffExecutor;
+    /**
+     * The maximum number of objects {@link #sort(Comparator)} reports as moved, sorting that
+     * moves more objects reports the whole range as changed.
+     */
+    private static final int MAX_SORT_MOVES = 128;
+    private Executor mDiffExecutor;
+    private final Handler mMainHandler = new Handler(Looper.getMainLooper());
+    /**
+     * Decides whether two items represent the same object and have the same content when
+     * computing the difference in {@link #submitList(List)}.
+     */
+    private ItemCallback<T> mItemCallback;
+    /**
+     * Generation of the last list passed to {@link #submitList(List)}. A computed difference is
+     * only applied when its generation still matches, results of older lists are dropped.
+     */
+    private int mMaxScheduledGeneration;
+
+    /**
+     * Callback used by {@link #submitList(List)} to decide how two lists differ.
+     *
+     * @param <T> The type of the items in the list.
+     */
+    public interface ItemCallback<T> {
+        /**
+         * Called to check whether two items represent the same object, for example whether
+         * they have the same unique id.
+         *
+         * @param oldItem The item in the old list.
+         * @param newItem The item in the new list.
+         * @return True if the two items represent the same object.
+         */
+        boolean areItemsTheSame(@Nullable T oldItem, @Nullable T newItem);
+
+        /**
+         * Called to check whether two items have the same data. This is only called when
+         * {@link #areItemsTheSame(Object, Object)} returned true for the two items.
+         *
+         * @param oldItem The item in the old list.
+         * @param newItem The item in the new list.
+         * @return True if the contents of the items are the same.
+         */
+        boolean areContentsTheSame(@Nullable T oldItem, @Nullable T newItem);
+    }
+
+    /**
+     * Maps an item to a key that uniquely identifies it within the array.
+     *
+     * @param <T> The type of the items in the list.
+     * @see #setKeyExtractor(KeyExtractor)
+     */
+    public interface KeyExtractor<T> {
+        /**
+         * Returns the key of the specified item. Items that represent the same object must
+         * have the same key, even if their content changed.
+         *
+         * @param item The item to get the key of.
+         * @return The key of the item.
+         */
+        long getKey(@Nullable T item);
+    }
+
+    /**
+     * The {@link ItemCallback} used when none was set, compares items using {@link Object#equals(Object)}.
+     */
+    private static final ItemCallback<Object> DEFAULT_ITEM_CALLBACK = new ItemCallback<Object>() {
+        @Override
+        public boolean areItemsTheSame(@Nullable Object oldItem, @Nullable Object newItem) {
+            return oldItem == null ? newItem == null : oldItem.equals(newItem);
+        }
+
+        @Override
+        public boolean areContentsTheSame(@Nullable Object oldItem, @Nullable Object newItem) {
+            return true;
+        }
+    };
 
     private class TextViewHolder extends RecyclerView.ViewHolder {
         public TextView textView;
@@ -189,14 +340,25 @@ public class ArrayAdapter<T> extends RecyclerView.Adapter implements Filterable
      * @param object The object to add at the end of the array.
      */
     public void add(@Nullable T object) {
+        final int position;
         synchronized (mLock) {
+            mModCount++;
             if (mOriginalValues != null) {
                 mOriginalValues.add(object);
+                // The filtered values are left untouched, the new object shows up on the next filtering
+                position = -1;
             } else {
+                position = mObjects.size();
                 mObjects.add(object);
+                if (mPositionsValid) {
+                    mPositions.putIfAbsent(mKeyExtractor.getKey(object), position);
+                }
+            }
+            if (mPrefixIndexValid) {
+                mPrefixIndex.add(object);
             }
         }
-        if (mNotifyOnChange) notifyDataSetChanged();
+        if (mNotifyOnChange && position != -1) notifyItemInserted(position);
     }
 
     /**
@@ -214,14 +376,25 @@ public class ArrayAdapter<T> extends RecyclerView.Adapter implements Filterable
      *                                       specified collection prevents it from being added to this list
      */
     public void addAll(@NonNull Collection<? extends T> collection) {
+        final int positionStart;
+        final int itemCount;
         synchronized (mLock) {
+            mModCount++;
+            mPositionsValid = false;
             if (mOriginalValues != null) {
                 mOriginalValues.addAll(collection);
+                positionStart = -1;
+                itemCount = 0;
             } else {
+                positionStart = mObjects.size();
                 mObjects.addAll(collection);
+                itemCount = mObjects.size() - positionStart;
+            }
+            if (mPrefixIndexValid) {
+                mPrefixIndex.addAll(collection);
             }
         }
-        if (mNotifyOnChange) notifyDataSetChanged();
+        if (mNotifyOnChange && itemCount > 0) notifyItemRangeInserted(positionStart, itemCount);
     }
 
     /**
@@ -230,14 +403,25 @@ public class ArrayAdapter<T> extends RecyclerView.Adapter implements Filterable
      * @param items The items to add at the end of the array.
      */
     public void addAll(T... items) {
+        final int positionStart;
+        final int itemCount;
         synchronized (mLock) {
+            mModCount++;
+            mPositionsValid = false;
             if (mOriginalValues != null) {
                 Collections.addAll(mOriginalValues, items);
+                positionStart = -1;
+                itemCount = 0;
             } else {
+                positionStart = mObjects.size();
                 Collections.addAll(mObjects, items);
+                itemCount = mObjects.size() - positionStart;
+            }
+            if (mPrefixIndexValid) {
+                mPrefixIndex.addAll(Arrays.asList(items));
             }
         }
-        if (mNotifyOnChange) notifyDataSetChanged();
+        if (mNotifyOnChange && itemCount > 0) notifyItemRangeInserted(positionStart, itemCount);
     }
 
     /**
@@ -247,61 +431,525 @@ public class ArrayAdapter<T> extends RecyclerView.Adapter implements Filterable
      * @param index  The index at which the object must be inserted.
      */
     public void insert(@Nullable T object, int index) {
+        final int position;
         synchronized (mLock) {
+            mModCount++;
             if (mOriginalValues != null) {
                 mOriginalValues.add(index, object);
+                position = -1;
             } else {
                 mObjects.add(index, object);
+                position = index;
+                if (mPositionsValid) {
+                    // Patch the positions in place instead of rebuilding them on the next lookup
+                    mPositions.shiftValues(index, 1);
+                    final long key = mKeyExtractor.getKey(object);
+                    final int existing = mPositions.get(key);
+                    if (existing == LongIntMap.NO_VALUE || existing > index) {
+                        mPositions.put(key, index);
+                    }
+                }
+            }
+            if (mPrefixIndexValid) {
+                mPrefixIndex.insert(index, object);
             }
         }
-        if (mNotifyOnChange) notifyDataSetChanged();
+        if (mNotifyOnChange && position != -1) notifyItemInserted(position);
     }
 
     /**
      * Removes the specified object from the array.
+     * <p>While a filter is active the object is also removed from the filtered values, so that
+     * it disappears from the list immediately.</p>
      *
      * @param object The object to remove.
      */
     public void remove(@Nullable T object) {
+        final int position;
         synchronized (mLock) {
-            if (mOriginalValues != null) {
-                mOriginalValues.remove(object);
-            } else {
-                mObjects.remove(object);
+            mModCount++;
+            final List<T> values = mOriginalValues != null ? mOriginalValues : mObjects;
+            final int index = values.indexOf(object);
+            if (index != -1 && mPrefixIndexValid) {
+                mPrefixIndex.remove(index);
+            }
+            if (mOriginalValues != null && index != -1) {
+                mOriginalValues.remove(index);
+            }
+            position = mObjects.indexOf(object);
+            if (position != -1) {
+                final T removed = mObjects.remove(position);
+                if (mPositionsValid) {
+                    // Keys are unique, so no other item has to take over the position of the removed one
+                    final long key = mKeyExtractor.getKey(removed);
+                    if (mPositions.get(key) == position) {
+                        mPositions.remove(key);
+                    }
+                    mPositions.shiftValues(position + 1, -1);
+                }
+                final DisplayTextCache displayTextCache = mDisplayTextCache;
+                if (displayTextCache != null) {
+                    displayTextCache.remove(removed);
+                }
             }
         }
-        if (mNotifyOnChange) notifyDataSetChanged();
+        if (mNotifyOnChange && position != -1) notifyItemRemoved(position);
     }
 
     /**
      * Remove all elements from the list.
      */
     public void clear() {
+        final int itemCount;
         synchronized (mLock) {
+            mModCount++;
+            mPositionsValid = false;
             if (mOriginalValues != null) {
                 mOriginalValues.clear();
-            } else {
-                mObjects.clear();
+            }
+            if (mPrefixIndexValid) {
+                mPrefixIndex.clear();
+            }
+            itemCount = mObjects.size();
+            mObjects.clear();
+            final DisplayTextCache displayTextCache = mDisplayTextCache;
+            if (displayTextCache != null) {
+                displayTextCache.evictAll();
             }
         }
-        if (mNotifyOnChange) notifyDataSetChanged();
+        if (mNotifyOnChange && itemCount > 0) notifyItemRangeRemoved(0, itemCount);
     }
 
     /**
      * Sorts the content of this adapter using the specified comparator.
+     * <p>While a filter is active the filtered values are sorted as well.</p>
      *
      * @param comparator The comparator used to sort the objects contained
      *                   in this adapter.
      */
     public void sort(@NonNull Comparator<? super T> comparator) {
+        final int[] oldPositions;
         synchronized (mLock) {
+            mModCount++;
+            mPositionsValid = false;
             if (mOriginalValues != null) {
                 Collections.sort(mOriginalValues, comparator);
+            }
+            oldPositions = sortObjects(comparator);
+            mPrefixIndexValid = false;
+        }
+        if (mNotifyOnChange && oldPositions.length > 0) dispatchSortMoves(oldPositions);
+    }
+
+    /**
+     * Sorts {@link #mObjects} in place. Must be called while holding {@link #mLock}.
+     *
+     * @return For each new position the position the object had before sorting.
+     */
+    @SuppressWarnings("unchecked")
+    private int[] sortObjects(@NonNull final Comparator<? super T> comparator) {
+        final Object[] objects = mObjects.toArray();
+        final Integer[] indices = new Integer[objects.length];
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = i;
+        }
+        // Arrays.sort() is stable like Collections.sort(), equal objects keep their order
+        Arrays.sort(indices, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer lhs, Integer rhs) {
+                return comparator.compare((T) objects[lhs], (T) objects[rhs]);
+            }
+        });
+        final int[] oldPositions = new int[indices.length];
+        for (int i = 0; i < indices.length; i++) {
+            oldPositions[i] = indices[i];
+            mObjects.set(i, (T) objects[oldPositions[i]]);
+        }
+        return oldPositions;
+    }
+
+    /**
+     * Dispatches the minimal number of move notifications that turn the old order into the
+     * sorted one. The objects on the longest run of old positions that is still increasing keep
+     * their place, every other object is moved once, right behind the object that precedes it in
+     * the sorted order. When more than {@link #MAX_SORT_MOVES} objects move, animating them is
+     * not worth it and the whole range is reported as changed instead.
+     *
+     * @param oldPositions For each new position the position the object had before sorting.
+     */
+    private void dispatchSortMoves(@NonNull int[] oldPositions) {
+        final int size = oldPositions.length;
+        final boolean[] kept = longestIncreasingSubsequence(oldPositions);
+        int moveCount = size;
+        for (boolean k : kept) {
+            if (k) moveCount--;
+        }
+        if (moveCount == 0) {
+            return;
+        }
+        if (moveCount > MAX_SORT_MOVES) {
+            if (hasStableIds()) {
+                // RecyclerView matches the items by their stable id and animates the moves itself
+                notifyDataSetChanged();
+            } else {
+                notifyItemRangeChanged(0, size);
+            }
+            return;
+        }
+
+        // The old positions of the objects in the order RecyclerView currently knows
+        final int[] current = new int[size];
+        for (int i = 0; i < size; i++) {
+            current[i] = i;
+        }
+        for (int i = 0; i < size; i++) {
+            if (kept[i]) continue;
+            final int fromPosition = indexOf(current, oldPositions[i]);
+            int toPosition = i == 0 ? 0 : indexOf(current, oldPositions[i - 1]) + 1;
+            if (fromPosition < toPosition) toPosition--;
+            if (fromPosition == toPosition) continue;
+            if (fromPosition < toPosition) {
+                System.arraycopy(current, fromPosition + 1, current, fromPosition, toPosition - fromPosition);
             } else {
-                Collections.sort(mObjects, comparator);
+                System.arraycopy(current, toPosition, current, toPosition + 1, fromPosition - toPosition);
+            }
+            current[toPosition] = oldPositions[i];
+            notifyItemMoved(fromPosition, toPosition);
+        }
+    }
+
+    /**
+     * @return For each index whether the value at this index is part of a longest strictly
+     * increasing subsequence of the values.
+     */
+    private static boolean[] longestIncreasingSubsequence(@NonNull int[] values) {
+        // tails[l] is the index of the smallest value ending an increasing subsequence of length l + 1
+        final int[] tails = new int[values.length];
+        final int[] previous = new int[values.length];
+        int length = 0;
+        for (int i = 0; i < values.length; i++) {
+            int low = 0;
+            int high = length;
+            while (low < high) {
+                final int mid = (low + high) >>> 1;
+                if (values[tails[mid]] < values[i]) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            previous[i] = low > 0 ? tails[low - 1] : -1;
+            tails[low] = i;
+            if (low == length) length++;
+        }
+        final boolean[] result = new boolean[values.length];
+        for (int i = length > 0 ? tails[length - 1] : -1; i >= 0; i = previous[i]) {
+            result[i] = true;
+        }
+        return result;
+    }
+
+    private static int indexOf(@NonNull int[] values, int value) {
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == value) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Replaces the content of the array with the specified list. The difference between the
+     * current and the new list is computed on a background thread and only the minimal set of
+     * change notifications is dispatched once it is known.
+     * <p>If this method is called again before the difference was computed, the result of the
+     * previous call is dropped. An active filter is cleared when the new list is applied.</p>
+     * <p>If the displayed list changes while the difference is computed, for example because a
+     * filter published its results or an object was added, the new list still replaces it but
+     * the whole list is refreshed instead, the computed changes no longer apply.</p>
+     *
+     * @param list The new list to display, or null to remove all elements.
+     * @see #setItemCallback(ItemCallback)
+     * @see #setDiffExecutor(Executor)
+     */
+    @MainThread
+    public void submitList(@Nullable List<T> list) {
+        final int generation = ++mMaxScheduledGeneration;
+        // Copy the list on the calling thread so that later changes made by the caller do not leak in
+        final List<T> newList = list == null ? new ChunkedList<T>() : new ChunkedList<>(list);
+        final List<T> oldList;
+        final List<T> previousObjects;
+        final int previousModCount;
+        synchronized (mLock) {
+            oldList = snapshotObjects();
+            previousObjects = mObjects;
+            previousModCount = mModCount;
+        }
+
+        if (oldList.isEmpty() || newList.isEmpty()) {
+            // Nothing to compute, one of the lists is empty
+            applyList(newList);
+            if (!oldList.isEmpty()) {
+                notifyItemRangeRemoved(0, oldList.size());
+            } else if (!newList.isEmpty()) {
+                notifyItemRangeInserted(0, newList.size());
             }
+            return;
+        }
+
+        final ItemCallback<T> callback = getItemCallback();
+        getDiffExecutor().execute(new Runnable() {
+            @Override
+            public void run() {
+                final DiffUtil.DiffResult result = DiffUtil.calculateDiff(new DiffUtil.Callback() {
+                    @Override
+                    public int getOldListSize() {
+                        return oldList.size();
+                    }
+
+                    @Override
+                    public int getNewListSize() {
+                        return newList.size();
+                    }
+
+                    @Override
+                    public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
+                        return callback.areItemsTheSame(oldList.get(oldItemPosition), newList.get(newItemPosition));
+                    }
+
+                    @Override
+                    public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
+                        return callback.areContentsTheSame(oldList.get(oldItemPosition), newList.get(newItemPosition));
+                    }
+                });
+
+                mMainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (mMaxScheduledGeneration != generation) {
+                            return;
+                        }
+                        final boolean upToDate;
+                        synchronized (mLock) {
+                            // The updates only apply to the list they were computed against
+                            upToDate = previousObjects == mObjects && previousModCount == mModCount;
+                        }
+                        applyList(newList);
+                        if (upToDate) {
+                            result.dispatchUpdatesTo(ArrayAdapter.this);
+                        } else {
+                            notifyDataSetChanged();
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Returns a copy of {@link #mObjects} that is not affected by later changes. Must be called
+     * while holding {@link #mLock}.
+     */
+    private List<T> snapshotObjects() {
+        if (mObjects instanceof ChunkedList) {
+            return ((ChunkedList<T>) mObjects).copy();
+        }
+        return new ArrayList<>(mObjects);
+    }
+
+    private void applyList(@NonNull List<T> list) {
+        synchronized (mLock) {
+            mModCount++;
+            mPositionsValid = false;
+            mObjects = list;
+            mOriginalValues = null;
+            mPrefixIndexValid = false;
+            // The items of the previous list are not displayed anymore
+            final DisplayTextCache displayTextCache = mDisplayTextCache;
+            if (displayTextCache != null) {
+                displayTextCache.evictAll();
+            }
+        }
+        if (mTextLayoutPrefetcher != null) {
+            mTextLayoutPrefetcher.reset();
+        }
+    }
+
+    /**
+     * Sets the maximum number of display texts to cache. Items that are not CharSequences are
+     * displayed using their toString(), which is then called only once per item and kept in a
+     * least recently used cache keyed by the item instance. Removing items from the array,
+     * clearing it or submitting a new list evicts their texts.
+     * <p>If the text of an item changes while it is in the array, call
+     * {@link #invalidateDisplayText(Object)} before notifying the change.</p>
+     * <p>The default is 0, which disables the cache.</p>
+     *
+     * @param maxSize The maximum number of cached texts.
+     */
+    public void setDisplayTextCacheSize(int maxSize) {
+        mDisplayTextCache = maxSize > 0 ? new DisplayTextCache(maxSize) : null;
+    }
+
+    /**
+     * Enables laying out the texts of the items that are about to be bound on a background
+     * thread. After an item was bound, the texts of the next items in scroll direction are laid
+     * out with a {@link android.text.StaticLayout} using the width and text style of the bound
+     * TextView. This measures the words of the texts ahead of time, so that the TextView finds
+     * them in the text measurement cache of the system when it lays out the same text on the
+     * main thread. The layouts themselves are dropped, only the texts that were laid out are
+     * remembered so that they are not laid out twice, bounded by their estimated memory size.
+     * <p>The system shares measured words between threads since Lollipop, on older versions
+     * this method does nothing.</p>
+     *
+     * @param prefetchCount The number of items ahead to lay out, 0 to disable prefetching.
+     * @param maxCacheBytes The estimated memory the remembered texts may take at most.
+     */
+    @MainThread
+    public void setTextLayoutPrefetch(int prefetchCount, int maxCacheBytes) {
+        if (mTextLayoutPrefetcher != null) {
+            mTextLayoutPrefetcher.release();
+        }
+        mTextLayoutPrefetcher = prefetchCount > 0 && maxCacheBytes > 0 && TextLayoutPrefetcher.isSupported()
+                ? new TextLayoutPrefetcher(prefetchCount, maxCacheBytes) : null;
+    }
+
+    /**
+     * Evicts the cached display text of the specified item.
+     *
+     * @param item The item whose text changed.
+     * @see #setDisplayTextCacheSize(int)
+     */
+    public void invalidateDisplayText(@Nullable T item) {
+        final DisplayTextCache displayTextCache = mDisplayTextCache;
+        if (displayTextCache != null) {
+            displayTextCache.remove(item);
+        }
+    }
+
+    /**
+     * @return The number of binds whose display text was found in the cache.
+     * @see #setDisplayTextCacheSize(int)
+     */
+    public int getDisplayTextCacheHitCount() {
+        final DisplayTextCache displayTextCache = mDisplayTextCache;
+        return displayTextCache != null ? displayTextCache.hitCount() : 0;
+    }
+
+    /**
+     * @return The number of binds whose display text had to be created.
+     * @see #setDisplayTextCacheSize(int)
+     */
+    public int getDisplayTextCacheMissCount() {
+        final DisplayTextCache displayTextCache = mDisplayTextCache;
+        return displayTextCache != null ? displayTextCache.missCount() : 0;
+    }
+
+    /**
+     * Controls whether the filter returned by {@link #getFilter()} uses a prefix index. The index
+     * splits the text of every item into lower case words once and keeps them sorted, so that
+     * filtering is a lookup instead of converting every item to a string on every call. It is
+     * kept up to date by {@link #add}, {@link #addAll(Collection)}, {@link #addAll(Object[])},
+     * {@link #insert}, {@link #remove} and {@link #clear}, and rebuilt after other changes.
+     * <p>The index costs memory proportional to the number of words of all items and relies on
+     * the text of the items not changing while they are in the array.</p>
+     * <p>The default is false.</p>
+     *
+     * @param enabled true to filter using a prefix index.
+     */
+    public void setFilterIndexEnabled(boolean enabled) {
+        synchronized (mLock) {
+            mPrefixIndex = enabled ? new PrefixIndex<T>() : null;
+            mPrefixIndexValid = false;
+        }
+    }
+
+    /**
+     * Sets the callback used by {@link #submitList(List)} to compare items. By default items are
+     * compared using {@link Object#equals(Object)}.
+     *
+     * @param callback The callback to use, or null to use the default one.
+     */
+    public void setItemCallback(@Nullable ItemCallback<T> callback) {
+        mItemCallback = callback;
+    }
+
+    @SuppressWarnings("unchecked")
+    private ItemCallback<T> getItemCallback() {
+        if (mItemCallback != null) {
+            return mItemCallback;
+        }
+        final KeyExtractor<? super T> keyExtractor = mKeyExtractor;
+        if (keyExtractor == null) {
+            return (ItemCallback<T>) DEFAULT_ITEM_CALLBACK;
+        }
+        // Items with the same key represent the same object
+        return new ItemCallback<T>() {
+            @Override
+            public boolean areItemsTheSame(@Nullable T oldItem, @Nullable T newItem) {
+                return keyExtractor.getKey(oldItem) == keyExtractor.getKey(newItem);
+            }
+
+            @Override
+            public boolean areContentsTheSame(@Nullable T oldItem, @Nullable T newItem) {
+                return oldItem == null ? newItem == null : oldItem.equals(newItem);
+            }
+        };
+    }
+
+    /**
+     * Sets the extractor mapping the items to the ids returned by {@link #getItemId(int)} and
+     * enables stable ids when it is not null. The position of an item returned by
+     * {@link #getPosition(Object)} is then looked up by its key instead of scanning the array.
+     * When no {@link ItemCallback} was set, {@link #submitList(List)} also uses the keys to
+     * tell whether two items represent the same object.
+     * <p>Like {@link #setHasStableIds(boolean)} this must be called before the adapter is set
+     * on a RecyclerView.</p>
+     *
+     * @param keyExtractor The extractor to use, or null to use the position as id.
+     */
+    public void setKeyExtractor(@Nullable KeyExtractor<? super T> keyExtractor) {
+        setHasStableIds(keyExtractor != null);
+        synchronized (mLock) {
+            mKeyExtractor = keyExtractor;
+            mPositions = keyExtractor != null ? new LongIntMap() : null;
+            mPositionsValid = false;
+        }
+    }
+
+    /**
+     * Sets the executor used by {@link #submitList(List)} to compute the difference between two
+     * lists. By default an executor shared by all array adapters is used.
+     *
+     * @param executor The executor to use, or null to use the default one.
+     */
+    public void setDiffExecutor(@Nullable Executor executor) {
+        mDiffExecutor = executor;
+    }
+
+    private Executor getDiffExecutor() {
+        if (mDiffExecutor != null) {
+            return mDiffExecutor;
+        }
+        synchronized (ArrayAdapter.class) {
+            if (sDiffExecutor == null) {
+                sDiffExecutor = Executors.newFixedThreadPool(2, new ThreadFactory() {
+                    private final AtomicInteger mCount = new AtomicInteger(1);
+
+                    @Override
+                    public Thread newThread(@NonNull final Runnable runnable) {
+                        final Thread thread = new Thread(new Runnable() {
+                            @Override
+                            public void run() {
+                                // Leave the CPU to the UI thread while large differences are computed
+                                Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                                runnable.run();
+                            }
+                        }, "ArrayAdapter diff #" + mCount.getAndIncrement());
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+            }
+            return sDiffExecutor;
         }
-        if (mNotifyOnChange) notifyDataSetChanged();
     }
 
 //    @Override
@@ -313,16 +961,17 @@ public class ArrayAdapter<T> extends RecyclerView.Adapter implements Filterable
     /**
      * Control whether methods that change the list ({@link #add}, {@link #addAll(Collection)},
      * {@link #addAll(Object[])}, {@link #insert}, {@link #remove}, {@link #clear},
-     * {@link #sort(Comparator)}) automatically call {@link #notifyDataSetChanged}.  If set to
-     * false, caller must manually call notifyDataSetChanged() to have the changes
-     * reflected in the attached view.
+     * {@link #sort(Comparator)}) automatically dispatch the matching fine-grained change
+     * notification ({@link #notifyItemInserted}, {@link #notifyItemRangeInserted},
+     * {@link #notifyItemRemoved}, {@link #notifyItemRangeRemoved} or
+     * {@link #notifyItemRangeChanged}).  If set to false, caller must manually call
+     * notifyDataSetChanged() to have the changes reflected in the attached view.
      * <p>
      * The default is true, and calling notifyDataSetChanged()
      * resets the flag to true.
      *
      * @param notifyOnChange if true, modifications to the list will
-     *                       automatically call {@link
-     *                       #notifyDataSetChanged}
+     *                       automatically notify the attached view
      */
     public void setNotifyOnChange(boolean notifyOnChange) {
         mNotifyOnChange = notifyOnChange;
@@ -353,12 +1002,33 @@ public class ArrayAdapter<T> extends RecyclerView.Adapter implements Filterable
      * @return The position of the specified item.
      */
     public int getPosition(@Nullable T item) {
-        return mObjects.indexOf(item);
+        synchronized (mLock) {
+            if (mKeyExtractor == null) {
+                return mObjects.indexOf(item);
+            }
+            if (!mPositionsValid) {
+                final int count = mObjects.size();
+                mPositions.clear(count);
+                for (int i = 0; i < count; i++) {
+                    mPositions.putIfAbsent(mKeyExtractor.getKey(mObjects.get(i)), i);
+                }
+                mPositionsValid = true;
+            }
+            return mPositions.get(mKeyExtractor.getKey(item));
+        }
     }
 
     @Override
     public RecyclerView.ViewHolder onCreateViewHolder(ViewGroup parent, int viewType) {
-        return new TextViewHolder(mInflater.inflate(mResource, parent, false));
+        // A LayoutInflater must not be used by two threads at once, so background threads use a copy
+        final LayoutInflater inflater = Looper.myLooper() == Looper.getMainLooper()
+                ? mInflater : mInflater.cloneInContext(mContext);
+        return new TextViewHolder(inflater.inflate(mResource, parent, false));
+    }
+
+    @Override
+    public boolean canCreateViewHolderInBackground(int viewType) {
+        return true;
     }
 
     @Override
@@ -368,13 +1038,18 @@ public class ArrayAdapter<T> extends RecyclerView.Adapter implements Filterable
         if (item instanceof CharSequence) {
             viewHolder.textView.setText((CharSequence) item);
         } else {
-            viewHolder.textView.setText(item.toString());
+            final DisplayTextCache displayTextCache = mDisplayTextCache;
+            viewHolder.textView.setText(displayTextCache != null ? displayTextCache.get(item) : item.toString());
+        }
+        if (mTextLayoutPrefetcher != null) {
+            mTextLayoutPrefetcher.onBind(viewHolder.textView, position, mTextProvider);
         }
     }
 
     @Override
     public long getItemId(int position) {
-        return position;
+        final KeyExtractor<? super T> keyExtractor = mKeyExtractor;
+        return keyExtractor != null ? keyExtractor.getKey(getItem(position)) : position;
     }
 
     @Override
@@ -415,70 +1090,226 @@ public class ArrayAdapter<T> extends RecyclerView.Adapter implements Filterable
      * is removed from the list.</p>
      */
     private class ArrayFilter extends Filter {
+        private static final int UPDATE_INSERT = 1;
+        private static final int UPDATE_REMOVE = 2;
+
+        /**
+         * The lower case prefix of the previous filtering, the values that matched it and the
+         * {@link #mModCount} they were computed for. Only accessed from the filter thread.
+         */
+        private String mLastPrefix;
+        private ChunkedList<T> mLastValues;
+        private int mLastModCount;
+
+        /**
+         * Filter results that also carry the changes turning the displayed values into the new
+         * ones, computed on the filter thread.
+         */
+        private class ArrayFilterResults extends FilterResults {
+            /**
+             * The displayed list and the {@link #mModCount} the updates were computed against.
+             */
+            List<T> previousObjects;
+            int previousModCount;
+            /**
+             * Triples of update type, position and item count, in dispatch order. Null when the
+             * changes could not be computed.
+             */
+            int[] updates;
+            int updateCount;
+        }
+
         @Override
         protected FilterResults performFiltering(CharSequence prefix) {
-            final FilterResults results = new FilterResults();
+            final ArrayFilterResults results = new ArrayFilterResults();
 
-            if (mOriginalValues == null) {
-                synchronized (mLock) {
-                    mOriginalValues = new ArrayList<>(mObjects);
+            final List<T> oldValues;
+            synchronized (mLock) {
+                if (mOriginalValues == null) {
+                    mOriginalValues = new ChunkedList<>(mObjects);
                 }
+                results.previousObjects = mObjects;
+                results.previousModCount = mModCount;
+                oldValues = snapshotObjects();
             }
 
+            final ChunkedList<T> newValues = filterValues(prefix);
+            results.values = newValues;
+            results.count = newValues.size();
+            computeUpdates(oldValues, newValues, results);
+            return results;
+        }
+
+        private ChunkedList<T> filterValues(CharSequence prefix) {
             if (prefix == null || prefix.length() == 0) {
-                final ArrayList<T> list;
+                final ChunkedList<T> list;
                 synchronized (mLock) {
-                    list = new ArrayList<>(mOriginalValues);
+                    list = mOriginalValues.copy();
                 }
-                results.values = list;
-                results.count = list.size();
-            } else {
-                final String prefixString = prefix.toString().toLowerCase();
+                mLastPrefix = null;
+                mLastValues = null;
+                return list;
+            }
 
-                final ArrayList<T> values;
-                synchronized (mLock) {
-                    values = new ArrayList<>(mOriginalValues);
+            final String prefixString = prefix.toString().toLowerCase();
+
+            final ChunkedList<T> values;
+            final int modCount;
+            synchronized (mLock) {
+                modCount = mModCount;
+                if (mLastValues != null && mLastModCount == modCount && prefixString.startsWith(mLastPrefix)) {
+                    // The new prefix extends the previous one, so every match is among the
+                    // previous matches and only those have to be checked again. They are
+                    // copied because the previous result is displayed and may be changed.
+                    values = mLastValues.copy();
+                } else if (mPrefixIndex != null) {
+                    if (!mPrefixIndexValid) {
+                        mPrefixIndex.build(mOriginalValues);
+                        mPrefixIndexValid = true;
+                    }
+                    final ChunkedList<T> newValues = mPrefixIndex.query(prefixString);
+                    mLastPrefix = prefixString;
+                    mLastValues = newValues;
+                    mLastModCount = modCount;
+                    return newValues;
+                } else {
+                    // Writers copy the chunks they change, so the snapshot can be read
+                    // without holding the lock
+                    values = mOriginalValues.copy();
                 }
+            }
 
-                final int count = values.size();
-                final ArrayList<T> newValues = new ArrayList<>();
+            final int count = values.size();
+            final ChunkedList<T> newValues = new ChunkedList<>();
 
-                for (int i = 0; i < count; i++) {
-                    final T value = values.get(i);
-                    final String valueText = value.toString().toLowerCase();
-
-                    // First match against the whole, non-splitted value
-                    if (valueText.startsWith(prefixString)) {
-                        newValues.add(value);
-                    } else {
-                        final String[] words = valueText.split(" ");
-                        for (String word : words) {
-                            if (word.startsWith(prefixString)) {
-                                newValues.add(value);
-                                break;
-                            }
-                        }
-                    }
+            for (int i = 0; i < count; i++) {
+                final T value = values.get(i);
+                if (matches(value, prefixString)) {
+                    newValues.add(value);
+                }
+            }
+
+            mLastPrefix = prefixString;
+            mLastValues = newValues;
+            mLastModCount = modCount;
+            return newValues;
+        }
+
+        private boolean matches(T value, String prefixString) {
+            final String valueText = value.toString().toLowerCase();
+
+            // First match against the whole, non-splitted value
+            if (valueText.startsWith(prefixString)) {
+                return true;
+            }
+            final String[] words = valueText.split(" ");
+            for (String word : words) {
+                if (word.startsWith(prefixString)) {
+                    return true;
                 }
+            }
+            return false;
+        }
 
-                results.values = newValues;
-                results.count = newValues.size();
+        /**
+         * Computes the insert and remove ranges turning the old values into the new ones. Both
+         * lists are expected to keep the order of the original values, which holds for all
+         * filter results, so a single pass over both lists is enough. When that is not the case
+         * no updates are stored and the whole list is refreshed instead.
+         */
+        private void computeUpdates(List<T> oldValues, List<T> newValues, ArrayFilterResults results) {
+            final IdentityHashMap<T, Boolean> oldSet = new IdentityHashMap<>(oldValues.size());
+            for (T value : oldValues) {
+                oldSet.put(value, Boolean.TRUE);
+            }
+            final IdentityHashMap<T, Boolean> newSet = new IdentityHashMap<>(newValues.size());
+            for (T value : newValues) {
+                newSet.put(value, Boolean.TRUE);
             }
 
-            return results;
+            results.updates = new int[3 * 4];
+            results.updateCount = 0;
+            final int oldSize = oldValues.size();
+            final int newSize = newValues.size();
+            int oldIndex = 0;
+            int newIndex = 0;
+            // Position in the list as it looks after the updates recorded so far
+            int position = 0;
+            while (oldIndex < oldSize || newIndex < newSize) {
+                final T oldValue = oldIndex < oldSize ? oldValues.get(oldIndex) : null;
+                final T newValue = newIndex < newSize ? newValues.get(newIndex) : null;
+                if (oldIndex < oldSize && newIndex < newSize && oldValue == newValue) {
+                    oldIndex++;
+                    newIndex++;
+                    position++;
+                } else if (oldIndex < oldSize && !newSet.containsKey(oldValue)) {
+                    addUpdate(results, UPDATE_REMOVE, position);
+                    oldIndex++;
+                } else if (newIndex < newSize && !oldSet.containsKey(newValue)) {
+                    addUpdate(results, UPDATE_INSERT, position);
+                    newIndex++;
+                    position++;
+                } else {
+                    // The values were reordered, the ranges cannot be computed in a single pass
+                    results.updates = null;
+                    return;
+                }
+            }
+        }
+
+        private void addUpdate(ArrayFilterResults results, int type, int position) {
+            final int last = 3 * (results.updateCount - 1);
+            if (results.updateCount > 0 && results.updates[last] == type) {
+                // Extend the previous range when this update continues it
+                final int end = type == UPDATE_INSERT
+                        ? results.updates[last + 1] + results.updates[last + 2]
+                        : results.updates[last + 1];
+                if (end == position) {
+                    results.updates[last + 2]++;
+                    return;
+                }
+            }
+            if (3 * (results.updateCount + 1) > results.updates.length) {
+                results.updates = Arrays.copyOf(results.updates, results.updates.length * 2);
+            }
+            final int next = 3 * results.updateCount;
+            results.updates[next] = type;
+            results.updates[next + 1] = position;
+            results.updates[next + 2] = 1;
+            results.updateCount++;
         }
 
         @Override
         protected void publishResults(CharSequence constraint, FilterResults results) {
-            //noinspection unchecked
-            mObjects = (List<T>) results.values;
-            if (results.count > 0) {
-                notifyDataSetChanged();
-            } else {
-//                notifyDataSetInvalidated();
-
+            final ArrayFilterResults filterResults = (ArrayFilterResults) results;
+            final boolean upToDate;
+            synchronized (mLock) {
+                // The updates only apply to the list they were computed against
+                upToDate = filterResults.updates != null
+                        && filterResults.previousObjects == mObjects
+                        && filterResults.previousModCount == mModCount;
+                //noinspection unchecked
+                mObjects = (List<T>) results.values;
+                mPositionsValid = false;
+            }
+            if (mTextLayoutPrefetcher != null) {
+                mTextLayoutPrefetcher.reset();
+            }
+            if (!upToDate) {
                 notifyDataSetChanged();
+                return;
+            }
+            final int[] updates = filterResults.updates;
+            for (int i = 0; i < filterResults.updateCount; i++) {
+                final int type = updates[3 * i];
+                final int positionStart = updates[3 * i + 1];
+                final int itemCount = updates[3 * i + 2];
+                if (type == UPDATE_INSERT) {
+                    notifyItemRangeInserted(positionStart, itemCount);
+                } else {
+                    notifyItemRangeRemoved(positionStart, itemCount);
+                }
             }
         }
     }
-}
\ No newline at end of file
+}
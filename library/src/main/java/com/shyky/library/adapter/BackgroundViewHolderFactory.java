@@ -0,0 +1,25 @@
+package com.shyky.library.adapter;
+
+import android.support.v7.widget.RecyclerView;
+import android.view.ViewGroup;
+
+/**
+ * 可以在后台线程中创建ViewHolder的Adapter
+ * <p>预先创建ViewHolder时，如果Adapter实现了此接口并且对指定的view type返回true，
+ * 会在后台线程中调用{@link RecyclerView.Adapter#createViewHolder(ViewGroup, int)}，否则在主线程空闲时创建。
+ * 在后台线程中创建ViewHolder时不能使用只能在主线程中使用的对象，例如为当前线程创建Handler的view</p>
+ *
+ * @author Shyky
+ * @version 1.0
+ * @date 2026/10/18
+ * @since 1.3
+ */
+public interface BackgroundViewHolderFactory {
+    /**
+     * 是否可以在后台线程中创建指定view type的ViewHolder
+     *
+     * @param viewType view type
+     * @return 可以在后台线程中创建时返回true
+     */
+    boolean canCreateViewHolderInBackground(int viewType);
+}
@@ -0,0 +1,287 @@
+package com.shyky.library.adapter;
+
+import android.support.annotation.NonNull;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.RandomAccess;
+
+/**
+ * 分块保存元素并支持写时复制的List
+ * <p>元素保存在多个固定容量的块中，{@link #copy()}不复制任何元素，只让两个列表共享所有的块，
+ * 之后任何一方修改时只复制被修改的块，因此可以在很短的时间内得到一个一致的快照，
+ * 修改快照或原列表都不会影响另一方</p>
+ * <p>此类不是线程安全的：{@link #copy()}和修改操作需要由调用者同步，
+ * 得到的副本可以在不加锁的情况下被另一个线程读取和修改</p>
+ *
+ * @author Shyky
+ * @version 1.0
+ * @date 2026/10/18
+ * @since 1.3
+ */
+class ChunkedList<T> extends AbstractList<T> implements RandomAccess {
+    private static final int CHUNK_CAPACITY = 64;
+    private static final int INITIAL_TABLE_CAPACITY = 4;
+
+    /**
+     * The chunks holding the elements, the number of elements in each chunk and the index of
+     * the first element of each chunk.
+     */
+    private Object[][] chunks;
+    private int[] sizes;
+    private int[] starts;
+    /**
+     * The token of the list that may change each chunk in place. Chunks owned by another token
+     * are shared with a copy and are copied before they are changed.
+     */
+    private Object[] owners;
+    private Object token = new Object();
+    /**
+     * Whether the arrays above are shared with a copy and must be copied before they are changed.
+     */
+    private boolean tableShared;
+    private int chunkCount;
+    private int size;
+
+    ChunkedList() {
+        chunks = new Object[INITIAL_TABLE_CAPACITY][];
+        sizes = new int[INITIAL_TABLE_CAPACITY];
+        starts = new int[INITIAL_TABLE_CAPACITY];
+        owners = new Object[INITIAL_TABLE_CAPACITY];
+    }
+
+    ChunkedList(@NonNull Collection<? extends T> collection) {
+        this();
+        addAll(collection);
+    }
+
+    private ChunkedList(ChunkedList<T> source) {
+        chunks = source.chunks;
+        sizes = source.sizes;
+        starts = source.starts;
+        owners = source.owners;
+        chunkCount = source.chunkCount;
+        size = source.size;
+        tableShared = true;
+    }
+
+    /**
+     * Returns a copy of this list. Only references to the chunks are shared, so this takes
+     * constant time, and both lists copy a chunk the first time they change it.
+     */
+    @NonNull
+    ChunkedList<T> copy() {
+        final ChunkedList<T> copy = new ChunkedList<>(this);
+        tableShared = true;
+        // None of the current chunks belongs to this list alone anymore
+        token = new Object();
+        return copy;
+    }
+
+    @Override
+    public T get(int index) {
+        checkIndex(index, size - 1);
+        final int chunk = chunkOf(index);
+        //noinspection unchecked
+        return (T) chunks[chunk][index - starts[chunk]];
+    }
+
+    @Override
+    public T set(int index, T element) {
+        checkIndex(index, size - 1);
+        final int chunk = chunkOf(index);
+        ensureChunkOwned(chunk);
+        final int offset = index - starts[chunk];
+        //noinspection unchecked
+        final T previous = (T) chunks[chunk][offset];
+        chunks[chunk][offset] = element;
+        return previous;
+    }
+
+    @Override
+    public void add(int index, T element) {
+        checkIndex(index, size);
+        ensureTableOwned();
+        int chunk;
+        if (chunkCount == 0) {
+            insertChunk(0, new Object[CHUNK_CAPACITY], 0);
+            chunk = 0;
+        } else {
+            chunk = index == size ? chunkCount - 1 : chunkOf(index);
+            if (sizes[chunk] == CHUNK_CAPACITY) {
+                if (index == size) {
+                    // Appending to a full last chunk starts a new one instead of splitting it
+                    insertChunk(chunkCount, new Object[CHUNK_CAPACITY], 0);
+                    chunk = chunkCount - 1;
+                } else {
+                    splitChunk(chunk);
+                    if (index - starts[chunk] > sizes[chunk]) {
+                        chunk++;
+                    }
+                }
+            }
+        }
+        ensureChunkOwned(chunk);
+        final Object[] elements = chunks[chunk];
+        final int offset = index - starts[chunk];
+        System.arraycopy(elements, offset, elements, offset + 1, sizes[chunk] - offset);
+        elements[offset] = element;
+        sizes[chunk]++;
+        size++;
+        updateStarts(chunk + 1);
+        modCount++;
+    }
+
+    @Override
+    public boolean addAll(@NonNull Collection<? extends T> collection) {
+        if (collection.isEmpty()) {
+            return false;
+        }
+        ensureTableOwned();
+        for (T element : collection) {
+            if (chunkCount == 0 || sizes[chunkCount - 1] == CHUNK_CAPACITY) {
+                insertChunk(chunkCount, new Object[CHUNK_CAPACITY], 0);
+            }
+            final int chunk = chunkCount - 1;
+            ensureChunkOwned(chunk);
+            chunks[chunk][sizes[chunk]++] = element;
+            size++;
+        }
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public T remove(int index) {
+        checkIndex(index, size - 1);
+        ensureTableOwned();
+        final int chunk = chunkOf(index);
+        ensureChunkOwned(chunk);
+        final Object[] elements = chunks[chunk];
+        final int offset = index - starts[chunk];
+        //noinspection unchecked
+        final T previous = (T) elements[offset];
+        System.arraycopy(elements, offset + 1, elements, offset, sizes[chunk] - offset - 1);
+        elements[--sizes[chunk]] = null;
+        size--;
+        if (sizes[chunk] == 0) {
+            removeChunk(chunk);
+            updateStarts(chunk);
+        } else {
+            updateStarts(chunk + 1);
+        }
+        modCount++;
+        return previous;
+    }
+
+    @Override
+    public void clear() {
+        // Drop the table instead of clearing it, it may be shared with a copy
+        chunks = new Object[INITIAL_TABLE_CAPACITY][];
+        sizes = new int[INITIAL_TABLE_CAPACITY];
+        starts = new int[INITIAL_TABLE_CAPACITY];
+        owners = new Object[INITIAL_TABLE_CAPACITY];
+        tableShared = false;
+        chunkCount = 0;
+        size = 0;
+        modCount++;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    private int chunkOf(int index) {
+        int low = 0;
+        int high = chunkCount - 1;
+        while (low < high) {
+            final int mid = (low + high + 1) >>> 1;
+            if (starts[mid] <= index) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    private void ensureTableOwned() {
+        if (tableShared) {
+            final int capacity = Math.max(INITIAL_TABLE_CAPACITY, chunkCount + 1);
+            chunks = Arrays.copyOf(chunks, capacity);
+            sizes = Arrays.copyOf(sizes, capacity);
+            starts = Arrays.copyOf(starts, capacity);
+            owners = Arrays.copyOf(owners, capacity);
+            tableShared = false;
+        }
+    }
+
+    private void ensureChunkOwned(int chunk) {
+        ensureTableOwned();
+        if (owners[chunk] != token) {
+            chunks[chunk] = Arrays.copyOf(chunks[chunk], CHUNK_CAPACITY);
+            owners[chunk] = token;
+        }
+    }
+
+    private void insertChunk(int chunk, Object[] elements, int elementCount) {
+        if (chunkCount == chunks.length) {
+            final int capacity = chunkCount * 2;
+            chunks = Arrays.copyOf(chunks, capacity);
+            sizes = Arrays.copyOf(sizes, capacity);
+            starts = Arrays.copyOf(starts, capacity);
+            owners = Arrays.copyOf(owners, capacity);
+        }
+        final int moved = chunkCount - chunk;
+        System.arraycopy(chunks, chunk, chunks, chunk + 1, moved);
+        System.arraycopy(sizes, chunk, sizes, chunk + 1, moved);
+        System.arraycopy(starts, chunk, starts, chunk + 1, moved);
+        System.arraycopy(owners, chunk, owners, chunk + 1, moved);
+        chunks[chunk] = elements;
+        sizes[chunk] = elementCount;
+        starts[chunk] = chunk == 0 ? 0 : starts[chunk - 1] + sizes[chunk - 1];
+        owners[chunk] = token;
+        chunkCount++;
+    }
+
+    private void removeChunk(int chunk) {
+        final int moved = chunkCount - chunk - 1;
+        System.arraycopy(chunks, chunk + 1, chunks, chunk, moved);
+        System.arraycopy(sizes, chunk + 1, sizes, chunk, moved);
+        System.arraycopy(starts, chunk + 1, starts, chunk, moved);
+        System.arraycopy(owners, chunk + 1, owners, chunk, moved);
+        chunkCount--;
+        chunks[chunkCount] = null;
+        owners[chunkCount] = null;
+    }
+
+    /**
+     * Moves the upper half of a full chunk into a new chunk right after it.
+     */
+    private void splitChunk(int chunk) {
+        final int half = CHUNK_CAPACITY / 2;
+        final Object[] upper = new Object[CHUNK_CAPACITY];
+        System.arraycopy(chunks[chunk], half, upper, 0, CHUNK_CAPACITY - half);
+        ensureChunkOwned(chunk);
+        Arrays.fill(chunks[chunk], half, CHUNK_CAPACITY, null);
+        sizes[chunk] = half;
+        insertChunk(chunk + 1, upper, CHUNK_CAPACITY - half);
+    }
+
+    private void updateStarts(int fromChunk) {
+        for (int i = Math.max(fromChunk, 1); i < chunkCount; i++) {
+            starts[i] = starts[i - 1] + sizes[i - 1];
+        }
+        if (chunkCount > 0) {
+            starts[0] = 0;
+        }
+    }
+
+    private void checkIndex(int index, int maxIndex) {
+        if (index < 0 || index > maxIndex) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.shyky.library.adapter;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 缓存item显示文字的LRU缓存
+ * <p>以item对象本身（而不是equals()）作为键，保存其toString()的结果，避免每次绑定时重复格式化文字，
+ * 并统计命中和未命中的次数以便调整缓存大小</p>
+ *
+ * @author Shyky
+ * @version 1.0
+ * @date 2026/10/18
+ * @since 1.3
+ */
+class DisplayTextCache {
+    /**
+     * Compares the wrapped item by identity.
+     */
+    private static final class IdentityKey {
+        Object item;
+
+        IdentityKey(Object item) {
+            this.item = item;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof IdentityKey && ((IdentityKey) o).item == item;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(item);
+        }
+    }
+
+    private final int maxSize;
+    private final LinkedHashMap<IdentityKey, String> map;
+    /**
+     * Reused to look items up without allocating a key.
+     */
+    private final IdentityKey probe = new IdentityKey(null);
+    private int hitCount;
+    private int missCount;
+
+    DisplayTextCache(final int maxSize) {
+        this.maxSize = maxSize;
+        // Access order makes the eldest entry the least recently used one
+        map = new LinkedHashMap<IdentityKey, String>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<IdentityKey, String> eldest) {
+                return size() > DisplayTextCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * Returns the display text of the item, calling its toString() only when it is not cached.
+     */
+    @NonNull
+    synchronized String get(@NonNull Object item) {
+        probe.item = item;
+        final String text = map.get(probe);
+        probe.item = null;
+        if (text != null) {
+            hitCount++;
+            return text;
+        }
+        missCount++;
+        final String newText = item.toString();
+        map.put(new IdentityKey(item), newText);
+        return newText;
+    }
+
+    synchronized void remove(@Nullable Object item) {
+        probe.item = item;
+        map.remove(probe);
+        probe.item = null;
+    }
+
+    synchronized void evictAll() {
+        map.clear();
+    }
+
+    synchronized int hitCount() {
+        return hitCount;
+    }
+
+    synchronized int missCount() {
+        return missCount;
+    }
+}
@@ -4,29 +4,44 @@ import android.content.Context;
 import android.support.v7.widget.GridLayoutManager;
 import android.support.v7.widget.RecyclerView;
 import android.support.v7.widget.StaggeredGridLayoutManager;
+import android.util.SparseArray;
+import android.util.SparseIntArray;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.FrameLayout;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
 import java.util.List;
 
 /**
  * 使用装饰者模式实现的支持添加多个header和footer的包装Adapter
+ * <p>通过此类的方法添加和移除header view和footer view时只会通知发生变化的位置，不会刷新整个列表</p>
  *
  * @author Shyky
- * @version 1.2
+ * @version 1.3
  * @date 2017/3/2
  * @since 1.0
  */
 public class HeaderAndFooterWrapperAdapter extends WrapperAdapter {
     /**
-     * 取值为Integer.MAX_VALUE + 10是为了防止外部的Adapter，即被包装的Adapter中的view type与其冲突
+     * 每个header view和footer view都有自己的view type，从Integer.MIN_VALUE + 10开始分配，
+     * 是为了防止外部的Adapter，即被包装的Adapter中的view type与其冲突
      */
-    private static final int TYPE_HEADER = Integer.MAX_VALUE + 10;
-    private static final int TYPE_FOOTER = Integer.MIN_VALUE - 10;
+    private static final int TYPE_FIXED_VIEW_START = Integer.MIN_VALUE + 10;
     private final List<View> headerViews;
     private final List<View> footerViews;
+    /**
+     * 已分配的view type与header view或footer view的对应关系，view被移除时一起移除，避免一直持有view和它的Context。
+     * view type不会重复分配，所以不需要保留
+     */
+    private final IdentityHashMap<View, Integer> fixedViewTypes = new IdentityHashMap<>();
+    private final SparseArray<View> fixedViews = new SparseArray<>();
+    /**
+     * 所有实例共用的下一个view type，不同的Adapter不会分配到相同的view type，共用RecycledViewPool时不会拿到其他Adapter的header和footer
+     */
+    private static int nextFixedViewType = TYPE_FIXED_VIEW_START;
     private ViewGroup parent;
 
     private class HeaderViewHolder extends RecyclerView.ViewHolder {
@@ -67,50 +82,118 @@ public class HeaderAndFooterWrapperAdapter extends WrapperAdapter {
     @Override
     public int getItemViewType(int position) {
         if (position < getHeaderCount()) {
-            return TYPE_HEADER;
+            return getFixedViewType(getHeader(position));
         }
         if (hasFooter() && position >= getHeaderCount() + adapter.getItemCount()) {
-            return TYPE_FOOTER;
+            return getFixedViewType(getFooter(position));
+        }
+        return adapter.getItemViewType(position - getHeaderCount());
+    }
+
+    /**
+     * 获取header view或footer view的view type，第一次调用时为其分配一个新的view type
+     */
+    private int getFixedViewType(View view) {
+        final Integer viewType = fixedViewTypes.get(view);
+        if (viewType != null) {
+            return viewType;
+        }
+        final int newViewType = nextFixedViewType++;
+        fixedViewTypes.put(view, newViewType);
+        fixedViews.put(newViewType, view);
+        return newViewType;
+    }
+
+    /**
+     * 移除已经不再显示的header view或footer view的view type。同一个view被添加了多次时，仍然显示的部分继续使用原来的view type
+     */
+    private void releaseFixedViewType(View view) {
+        if (headerViews.contains(view) || footerViews.contains(view)) {
+            return;
+        }
+        final Integer viewType = fixedViewTypes.remove(view);
+        if (viewType != null) {
+            fixedViews.remove(viewType);
         }
-        return super.getItemViewType(position);
+    }
+
+    /**
+     * 判断view type是否属于某个header view或footer view
+     */
+    protected boolean isFixedViewType(int viewType) {
+        return fixedViews.get(viewType) != null;
+    }
+
+    @Override
+    public long getItemId(int position) {
+        if (position < getHeaderCount() || position >= getHeaderCount() + adapter.getItemCount()) {
+            // 每个header view和footer view的view type都不同，RecyclerView同时比较id和view type，不会与item的id混淆
+            return getItemViewType(position);
+        }
+        return super.getItemId(position);
     }
 
     @Override
     public RecyclerView.ViewHolder onCreateViewHolder(ViewGroup parent, int viewType) {
         this.parent = parent;
-        switch (viewType) {
-            case TYPE_HEADER:
-                final FrameLayout headerContainer = new FrameLayout(context);
-                return new HeaderViewHolder(headerContainer);
-            case TYPE_FOOTER:
-                final FrameLayout footerContainer = new FrameLayout(context);
-                return new FooterViewHolder(footerContainer);
-            default:
-                return adapter.onCreateViewHolder(parent, viewType);
+        final View fixedView = fixedViews.get(viewType);
+        if (fixedView == null) {
+            return adapter.onCreateViewHolder(parent, viewType);
         }
+        // header view和footer view只在创建ViewHolder时添加到容器中一次，之后绑定时不再需要重新添加
+        final FrameLayout container = new FrameLayout(context);
+        attachFixedView(container, fixedView);
+        return headerViews.contains(fixedView) ? new HeaderViewHolder(container) : new FooterViewHolder(container);
     }
 
     @Override
     public void onBindViewHolder(RecyclerView.ViewHolder holder, int position) {
-        final int viewType = getItemViewType(position);
-        switch (viewType) {
-            case TYPE_HEADER:
-                final HeaderViewHolder headerViewHolder = (HeaderViewHolder) holder;
-                // 解决java.lang.IllegalStateException: The specified child already has a parent. You must call removeView() on the child's parent first.
-                headerViewHolder.container.removeAllViews();
-                headerViewHolder.container.addView(getHeader(position));
-                break;
-            case TYPE_FOOTER:
-                final FooterViewHolder footerViewHolder = (FooterViewHolder) holder;
-                // 解决java.lang.IllegalStateException: The specified child already has a parent. You must call removeView() on the child's parent first.
-                footerViewHolder.container.removeAllViews();
-                footerViewHolder.container.addView(getFooter(position));
-                break;
-            default:
-                final int itemPosition = position - getHeaderCount();
-
-                adapter.onBindViewHolder(holder, itemPosition);
+        if (holder instanceof HeaderViewHolder) {
+            attachFixedView(((HeaderViewHolder) holder).container, getHeader(position));
+        } else if (holder instanceof FooterViewHolder) {
+            attachFixedView(((FooterViewHolder) holder).container, getFooter(position));
+        } else {
+            final int itemPosition = position - getHeaderCount();
+
+            adapter.onBindViewHolder(holder, itemPosition);
+        }
+    }
+
+    @Override
+    public void onBindViewHolder(RecyclerView.ViewHolder holder, int position, List payloads) {
+        if (holder instanceof HeaderViewHolder || holder instanceof FooterViewHolder) {
+            onBindViewHolder(holder, position);
+        } else {
+            // 将payload传给被包装的Adapter，使其可以只更新变化的部分
+            adapter.onBindViewHolder(holder, position - getHeaderCount(), payloads);
+        }
+    }
+
+    @Override
+    public boolean canCreateViewHolderInBackground(int viewType) {
+        // header view和footer view已经创建好了，只需要放到容器中
+        return !isFixedViewType(viewType) && super.canCreateViewHolderInBackground(viewType);
+    }
+
+    @Override
+    protected int getInnerPositionOffset() {
+        return getHeaderCount();
+    }
+
+    /**
+     * 将header view或footer view添加到容器中，已经在容器中时什么也不做。
+     * 只有RecyclerView为同一个view type创建了多个ViewHolder（例如执行change动画时）才需要移动view
+     */
+    private void attachFixedView(FrameLayout container, View view) {
+        if (view.getParent() == container) {
+            return;
         }
+        if (view.getParent() instanceof ViewGroup) {
+            // 解决java.lang.IllegalStateException: The specified child already has a parent. You must call removeView() on the child's parent first.
+            ((ViewGroup) view.getParent()).removeView(view);
+        }
+        container.removeAllViews();
+        container.addView(view);
     }
 
     @Override
@@ -124,14 +207,152 @@ public class HeaderAndFooterWrapperAdapter extends WrapperAdapter {
         final RecyclerView.LayoutManager layoutManager = recyclerView.getLayoutManager();
         if (layoutManager instanceof GridLayoutManager) {
             final GridLayoutManager gridManager = ((GridLayoutManager) layoutManager);
-            gridManager.setSpanSizeLookup(new GridLayoutManager.SpanSizeLookup() {
-                @Override
-                public int getSpanSize(int position) {
-                    // 当item view type为header或footer时返回单位格为1
-                    final int itemViewType = getItemViewType(position);
-                    return itemViewType == TYPE_HEADER || itemViewType == TYPE_FOOTER ? gridManager.getSpanCount() : 1;
+            GridLayoutManager.SpanSizeLookup spanSizeLookup = gridManager.getSpanSizeLookup();
+            if (spanSizeLookup instanceof FixedViewSpanSizeLookup) {
+                // 重新添加到RecyclerView时不要重复包装
+                spanSizeLookup = ((FixedViewSpanSizeLookup) spanSizeLookup).itemSpanSizeLookup;
+            }
+            gridManager.setSpanSizeLookup(new FixedViewSpanSizeLookup(gridManager, spanSizeLookup));
+        }
+    }
+
+    @Override
+    public void onDetachedFromRecyclerView(RecyclerView recyclerView) {
+        // 恢复原来的SpanSizeLookup
+        final RecyclerView.LayoutManager layoutManager = recyclerView.getLayoutManager();
+        if (layoutManager instanceof GridLayoutManager) {
+            final GridLayoutManager gridManager = ((GridLayoutManager) layoutManager);
+            final GridLayoutManager.SpanSizeLookup spanSizeLookup = gridManager.getSpanSizeLookup();
+            if (spanSizeLookup instanceof FixedViewSpanSizeLookup
+                    && ((FixedViewSpanSizeLookup) spanSizeLookup).getAdapter() == this) {
+                gridManager.setSpanSizeLookup(((FixedViewSpanSizeLookup) spanSizeLookup).itemSpanSizeLookup);
+            }
+        }
+    }
+
+    /**
+     * 让header view和footer view占满一行，其他位置减去header的数量后交给原来的SpanSizeLookup处理
+     * <p>开启了span index缓存，并且缓存了每个位置所在的行（span group index），GridLayoutManager在数据变化时会清除这些缓存。
+     * 原来的SpanSizeLookup需要在设置Adapter之前设置给GridLayoutManager</p>
+     */
+    private class FixedViewSpanSizeLookup extends GridLayoutManager.SpanSizeLookup {
+        private final GridLayoutManager gridManager;
+        private final GridLayoutManager.SpanSizeLookup itemSpanSizeLookup;
+        /**
+         * 已计算过的位置所在的行和列，只在开启缓存时使用
+         */
+        private final SparseIntArray spanGroupIndexCache = new SparseIntArray();
+        private final SparseIntArray spanIndexCache = new SparseIntArray();
+        private int cachedSpanCount;
+
+        FixedViewSpanSizeLookup(GridLayoutManager gridManager, GridLayoutManager.SpanSizeLookup itemSpanSizeLookup) {
+            this.gridManager = gridManager;
+            this.itemSpanSizeLookup = itemSpanSizeLookup;
+            setSpanIndexCacheEnabled(true);
+        }
+
+        HeaderAndFooterWrapperAdapter getAdapter() {
+            return HeaderAndFooterWrapperAdapter.this;
+        }
+
+        private boolean isFixedViewPosition(int position) {
+            return position < getHeaderCount() || position >= getHeaderCount() + adapter.getItemCount();
+        }
+
+        @Override
+        public int getSpanSize(int position) {
+            if (isFixedViewPosition(position)) {
+                return gridManager.getSpanCount();
+            }
+            return itemSpanSizeLookup.getSpanSize(position - getHeaderCount());
+        }
+
+        @Override
+        public int getSpanIndex(int position, int spanCount) {
+            if (isFixedViewPosition(position)) {
+                return 0;
+            }
+            // header占满了前面的行，所以item的列与没有header时相同
+            return itemSpanSizeLookup.getSpanIndex(position - getHeaderCount(), spanCount);
+        }
+
+        @Override
+        public int getSpanGroupIndex(int adapterPosition, int spanCount) {
+            if (!isSpanIndexCacheEnabled()) {
+                return super.getSpanGroupIndex(adapterPosition, spanCount);
+            }
+            if (spanCount != cachedSpanCount) {
+                clearCache();
+                cachedSpanCount = spanCount;
+            }
+            final int cachedIndex = spanGroupIndexCache.indexOfKey(adapterPosition);
+            if (cachedIndex >= 0) {
+                return spanGroupIndexCache.valueAt(cachedIndex);
+            }
+
+            // 从前面最近的已缓存的位置开始计算
+            int group = 0;
+            int span = 0;
+            int start = 0;
+            final int previous = findCachedPositionBefore(adapterPosition);
+            if (previous != -1) {
+                group = spanGroupIndexCache.get(previous);
+                span = spanIndexCache.get(previous) + getSpanSize(previous);
+                if (span >= spanCount) {
+                    span = 0;
+                    group++;
+                }
+                start = previous + 1;
+            }
+            for (int i = start; i < adapterPosition; i++) {
+                final int size = getSpanSize(i);
+                span += size;
+                if (span == spanCount) {
+                    span = 0;
+                    group++;
+                } else if (span > spanCount) {
+                    span = size;
+                    group++;
                 }
-            });
+            }
+            if (span + getSpanSize(adapterPosition) > spanCount) {
+                span = 0;
+                group++;
+            }
+            spanGroupIndexCache.put(adapterPosition, group);
+            spanIndexCache.put(adapterPosition, span);
+            return group;
+        }
+
+        /**
+         * 二分查找小于指定位置的最大的已缓存位置
+         *
+         * @return 已缓存的位置，没有时返回-1
+         */
+        private int findCachedPositionBefore(int position) {
+            int low = 0;
+            int high = spanGroupIndexCache.size() - 1;
+            while (low <= high) {
+                final int mid = (low + high) >>> 1;
+                if (spanGroupIndexCache.keyAt(mid) < position) {
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return high >= 0 ? spanGroupIndexCache.keyAt(high) : -1;
+        }
+
+        @Override
+        public void invalidateSpanIndexCache() {
+            super.invalidateSpanIndexCache();
+            clearCache();
+            itemSpanSizeLookup.invalidateSpanIndexCache();
+        }
+
+        private void clearCache() {
+            spanGroupIndexCache.clear();
+            spanIndexCache.clear();
         }
     }
 
@@ -142,10 +363,92 @@ public class HeaderAndFooterWrapperAdapter extends WrapperAdapter {
             StaggeredGridLayoutManager.LayoutParams p = (StaggeredGridLayoutManager.LayoutParams) params;
             // 当item view type为header或footer时设置为全屏显示
             final int itemViewType = holder.getItemViewType();
-            p.setFullSpan(itemViewType == TYPE_HEADER || itemViewType == TYPE_FOOTER);
+            p.setFullSpan(isFixedViewType(itemViewType));
         }
     }
 
+    /**
+     * 在所有header view之后添加一个header view
+     *
+     * @param view 要添加的view
+     */
+    public void addHeaderView(View view) {
+        headerViews.add(view);
+        notifyItemInserted(headerViews.size() - 1);
+    }
+
+    /**
+     * 在所有header view之后添加多个header view，只发出一次通知
+     *
+     * @param views 要添加的view
+     */
+    public void addHeaderViews(Collection<? extends View> views) {
+        if (views.isEmpty()) {
+            return;
+        }
+        final int positionStart = headerViews.size();
+        headerViews.addAll(views);
+        notifyItemRangeInserted(positionStart, views.size());
+    }
+
+    /**
+     * 移除一个header view
+     *
+     * @param view 要移除的view
+     * @return 是否移除了view
+     */
+    public boolean removeHeaderView(View view) {
+        final int index = headerViews.indexOf(view);
+        if (index < 0) {
+            return false;
+        }
+        headerViews.remove(index);
+        releaseFixedViewType(view);
+        notifyItemRemoved(index);
+        return true;
+    }
+
+    /**
+     * 在所有footer view之后添加一个footer view
+     *
+     * @param view 要添加的view
+     */
+    public void addFooterView(View view) {
+        footerViews.add(view);
+        notifyItemInserted(getItemCount() - 1);
+    }
+
+    /**
+     * 在所有footer view之后添加多个footer view，只发出一次通知
+     *
+     * @param views 要添加的view
+     */
+    public void addFooterViews(Collection<? extends View> views) {
+        if (views.isEmpty()) {
+            return;
+        }
+        final int positionStart = getItemCount();
+        footerViews.addAll(views);
+        notifyItemRangeInserted(positionStart, views.size());
+    }
+
+    /**
+     * 移除一个footer view
+     *
+     * @param view 要移除的view
+     * @return 是否移除了view
+     */
+    public boolean removeFooterView(View view) {
+        final int index = footerViews.indexOf(view);
+        if (index < 0) {
+            return false;
+        }
+        footerViews.remove(index);
+        releaseFixedViewType(view);
+        notifyItemRemoved(getHeaderCount() + adapter.getItemCount() + index);
+        return true;
+    }
+
     public int getHeaderCount() {
         return headerViews.size();
     }
@@ -155,7 +458,7 @@ public class HeaderAndFooterWrapperAdapter extends WrapperAdapter {
     }
 
     public int getFooterCount() {
-        return headerViews.size();
+        return footerViews.size();
     }
 
     public boolean hasFooter() {
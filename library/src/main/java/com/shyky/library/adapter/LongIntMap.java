@@ -0,0 +1,172 @@
+package com.shyky.library.adapter;
+
+import java.util.Arrays;
+
+/**
+ * 以long为键、int为值的哈希表
+ * <p>使用开放寻址法保存在两个基本类型数组中，查找时不会装箱，也不会为每个键值对创建对象</p>
+ * <p>此类不是线程安全的，调用者需要自行同步</p>
+ *
+ * @author Shyky
+ * @version 1.0
+ * @date 2026/10/18
+ * @since 1.3
+ */
+class LongIntMap {
+    /**
+     * Value returned by {@link #get(long)} when the key is not in the map.
+     */
+    static final int NO_VALUE = -1;
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] keys;
+    private int[] values;
+    /**
+     * Whether the slot at the same position holds an entry.
+     */
+    private boolean[] used;
+    private int size;
+    private int mask;
+
+    LongIntMap() {
+        allocate(MIN_CAPACITY);
+    }
+
+    int get(long key) {
+        for (int slot = slot(key); used[slot]; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+        }
+        return NO_VALUE;
+    }
+
+    /**
+     * Associates the value with the key, replacing any previous value.
+     */
+    void put(long key, int value) {
+        int slot = slot(key);
+        for (; used[slot]; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                values[slot] = value;
+                return;
+            }
+        }
+        insert(slot, key, value);
+    }
+
+    /**
+     * Associates the value with the key only if the key is not in the map yet.
+     */
+    void putIfAbsent(long key, int value) {
+        int slot = slot(key);
+        for (; used[slot]; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return;
+            }
+        }
+        insert(slot, key, value);
+    }
+
+    /**
+     * Removes all entries, making room for at least the specified number of entries.
+     */
+    void clear(int expectedSize) {
+        final int capacity = capacityFor(expectedSize);
+        if (capacity > keys.length) {
+            allocate(capacity);
+        } else {
+            Arrays.fill(used, false);
+        }
+        size = 0;
+    }
+
+    /**
+     * Removes the entry of the key, if any.
+     */
+    void remove(long key) {
+        int hole = slot(key);
+        for (; used[hole]; hole = (hole + 1) & mask) {
+            if (keys[hole] == key) {
+                break;
+            }
+        }
+        if (!used[hole]) {
+            return;
+        }
+        // Move the following entries of the probe sequence into the hole, so that lookups do not stop early
+        for (int slot = (hole + 1) & mask; used[slot]; slot = (slot + 1) & mask) {
+            final int home = slot(keys[slot]);
+            if (((slot - home) & mask) >= ((slot - hole) & mask)) {
+                keys[hole] = keys[slot];
+                values[hole] = values[slot];
+                hole = slot;
+            }
+        }
+        used[hole] = false;
+        size--;
+    }
+
+    /**
+     * Adds the delta to every value that is greater than or equal to the specified value. Runs
+     * over the arrays once without hashing, the keys keep their slots.
+     */
+    void shiftValues(int fromValue, int delta) {
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (used[slot] && values[slot] >= fromValue) {
+                values[slot] += delta;
+            }
+        }
+    }
+
+    private void insert(int slot, long key, int value) {
+        keys[slot] = key;
+        values[slot] = value;
+        used[slot] = true;
+        size++;
+        // Keep the load factor at or below 0.5 so that probe sequences stay short
+        if (size * 2 > keys.length) {
+            rehash(keys.length * 2);
+        }
+    }
+
+    private void rehash(int capacity) {
+        final long[] oldKeys = keys;
+        final int[] oldValues = values;
+        final boolean[] oldUsed = used;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldUsed[i]) {
+                int slot = slot(oldKeys[i]);
+                while (used[slot]) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+                used[slot] = true;
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        used = new boolean[capacity];
+        mask = capacity - 1;
+    }
+
+    private int slot(long key) {
+        // Spread the bits of the key, ids are often small sequential numbers
+        long hash = key * 0x9E3779B97F4A7C15L;
+        hash ^= hash >>> 32;
+        return (int) hash & mask;
+    }
+
+    private static int capacityFor(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < expectedSize * 2) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+}
@@ -0,0 +1,262 @@
+package com.shyky.library.adapter;
+
+import android.content.Context;
+import android.support.annotation.IdRes;
+import android.support.annotation.LayoutRes;
+import android.support.annotation.NonNull;
+import android.support.annotation.WorkerThread;
+import android.support.v7.widget.RecyclerView;
+import android.util.Log;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+
+/**
+ * 通过内存映射文件显示大量只读字符串的Adapter
+ * <p>字符串以UTF-8编码保存在数据文件中，索引文件保存每条记录的起始偏移量，两个文件都通过
+ * {@link FileChannel#map(FileChannel.MapMode, long, long)}映射到内存，不会把字符串加载到Java堆中。
+ * item的数量直接由索引文件的大小得出，绑定时只解码当前显示的记录</p>
+ * <p>索引文件由{@link #buildIndex(File, File)}生成，包含记录数量加一个big-endian的long，
+ * 第i条记录占用数据文件中第i个和第i+1个偏移量之间的字节，末尾的换行符不会显示</p>
+ * <p>单个文件的大小不能超过2GB</p>
+ *
+ * @author Shyky
+ * @version 1.0
+ * @date 2026/10/18
+ * @since 1.3
+ */
+public class MappedStringAdapter extends RecyclerView.Adapter {
+    private static final String TAG = "MappedStringAdapter";
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final Context mContext;
+    private final LayoutInflater mInflater;
+    private final int mResource;
+    private final int mFieldId;
+    private final ByteBuffer mData;
+    private final LongBuffer mOffsets;
+    private final int mCount;
+    /**
+     * Reused while binding: a view of {@link #mData} limited to the bound record, the decoder and
+     * the buffer holding the decoded characters.
+     */
+    private final ByteBuffer mRecord;
+    private final CharsetDecoder mDecoder;
+    private CharBuffer mChars = CharBuffer.allocate(256);
+
+    private class TextViewHolder extends RecyclerView.ViewHolder {
+        public TextView textView;
+
+        public TextViewHolder(View itemView) {
+            super(itemView);
+            try {
+                if (mFieldId == 0) {
+                    //  If no custom field is assigned, assume the whole resource is a TextView
+                    textView = (TextView) itemView;
+                } else {
+                    //  Otherwise, find the TextView field within the layout
+                    textView = (TextView) itemView.findViewById(mFieldId);
+
+                    if (textView == null) {
+                        throw new RuntimeException("Failed to find view with ID "
+                                + mContext.getResources().getResourceName(mFieldId)
+                                + " in item layout");
+                    }
+                }
+            } catch (ClassCastException e) {
+                Log.e(TAG, "You must supply a resource ID for a TextView");
+                throw new IllegalStateException(
+                        "MappedStringAdapter requires the resource ID to be a TextView", e);
+            }
+        }
+    }
+
+    /**
+     * Constructor
+     *
+     * @param context   The current context.
+     * @param resource  The resource ID for a layout file containing a TextView to use when
+     *                  instantiating views.
+     * @param dataFile  The file containing the UTF-8 encoded records.
+     * @param indexFile The index of the records, see {@link #buildIndex(File, File)}.
+     * @throws IOException if one of the files cannot be mapped.
+     */
+    public MappedStringAdapter(@NonNull Context context, @LayoutRes int resource,
+                               @NonNull File dataFile, @NonNull File indexFile) throws IOException {
+        this(context, resource, 0, dataFile, indexFile);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param context            The current context.
+     * @param resource           The resource ID for a layout file containing a layout to use when
+     *                           instantiating views.
+     * @param textViewResourceId The id of the TextView within the layout resource to be populated
+     * @param dataFile           The file containing the UTF-8 encoded records.
+     * @param indexFile          The index of the records, see {@link #buildIndex(File, File)}.
+     * @throws IOException if one of the files cannot be mapped.
+     */
+    public MappedStringAdapter(@NonNull Context context, @LayoutRes int resource, @IdRes int textViewResourceId,
+                               @NonNull File dataFile, @NonNull File indexFile) throws IOException {
+        mContext = context;
+        mInflater = LayoutInflater.from(context);
+        mResource = resource;
+        mFieldId = textViewResourceId;
+        mData = map(dataFile);
+        mOffsets = map(indexFile).asLongBuffer();
+        mCount = Math.max(0, mOffsets.limit() - 1);
+        mRecord = mData.duplicate();
+        mDecoder = UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    }
+
+    /**
+     * Writes the index of a file containing one UTF-8 record per line.
+     *
+     * @param dataFile  The file containing the records.
+     * @param indexFile The file the index is written to.
+     * @return The number of records.
+     * @throws IOException if reading the data or writing the index fails.
+     */
+    @WorkerThread
+    public static int buildIndex(@NonNull File dataFile, @NonNull File indexFile) throws IOException {
+        final InputStream in = new BufferedInputStream(new FileInputStream(dataFile));
+        final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(indexFile)));
+        int count = 0;
+        try {
+            final byte[] buffer = new byte[8192];
+            long position = 0;
+            // Whether the last byte read ended a record, so that the next byte starts a new one
+            boolean recordStart = true;
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                for (int i = 0; i < read; i++) {
+                    if (recordStart) {
+                        out.writeLong(position + i);
+                        count++;
+                        recordStart = false;
+                    }
+                    if (buffer[i] == '\n') {
+                        recordStart = true;
+                    }
+                }
+                position += read;
+            }
+            // The end of the last record
+            out.writeLong(position);
+        } finally {
+            in.close();
+            out.close();
+        }
+        return count;
+    }
+
+    private static MappedByteBuffer map(File file) throws IOException {
+        final RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+        try {
+            final FileChannel channel = randomAccessFile.getChannel();
+            // The mapping stays valid after the channel is closed
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } finally {
+            randomAccessFile.close();
+        }
+    }
+
+    /**
+     * Returns the context associated with this adapter.
+     *
+     * @return The Context associated with this adapter.
+     */
+    public
+    @NonNull
+    Context getContext() {
+        return mContext;
+    }
+
+    /**
+     * Decodes the record at the specified position into a new string.
+     *
+     * @param position The position of the record.
+     * @return The record, without the trailing line break.
+     */
+    public
+    @NonNull
+    String getItem(int position) {
+        return decode(position).toString();
+    }
+
+    @Override
+    public RecyclerView.ViewHolder onCreateViewHolder(ViewGroup parent, int viewType) {
+        return new TextViewHolder(mInflater.inflate(mResource, parent, false));
+    }
+
+    @Override
+    public void onBindViewHolder(RecyclerView.ViewHolder holder, int position) {
+        final TextViewHolder viewHolder = (TextViewHolder) holder;
+        // TextView copies the characters, so the buffer can be reused for the next record
+        viewHolder.textView.setText(decode(position));
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return position;
+    }
+
+    @Override
+    public int getItemCount() {
+        return mCount;
+    }
+
+    /**
+     * Decodes a record into the shared {@link #mChars} buffer, which is only valid until the next call.
+     */
+    private CharBuffer decode(int position) {
+        if (position < 0 || position >= mCount) {
+            throw new IndexOutOfBoundsException("Index: " + position + ", Size: " + mCount);
+        }
+        final int start = (int) mOffsets.get(position);
+        int end = (int) mOffsets.get(position + 1);
+        // Drop the line break ending the record
+        if (end > start && mData.get(end - 1) == '\n') {
+            end--;
+            if (end > start && mData.get(end - 1) == '\r') {
+                end--;
+            }
+        }
+        final int length = end - start;
+        if (mChars.capacity() < length) {
+            // UTF-8 never needs more characters than bytes
+            mChars = CharBuffer.allocate(length);
+        }
+
+        mRecord.limit(end);
+        mRecord.position(start);
+        mChars.clear();
+        mDecoder.reset();
+        mDecoder.decode(mRecord, mChars, true);
+        mDecoder.flush(mChars);
+        mChars.flip();
+        return mChars;
+    }
+}
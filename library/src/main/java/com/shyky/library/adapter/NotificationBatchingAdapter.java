@@ -0,0 +1,343 @@
+package com.shyky.library.adapter;
+
+import android.support.annotation.MainThread;
+import android.support.annotation.NonNull;
+import android.support.v7.widget.RecyclerView;
+import android.view.ViewGroup;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 合并数据变化通知的包装Adapter
+ * <p>被包装的Adapter发出的通知不会立即转发，而是先保存起来，调用{@link #flush()}时才一次性发出。
+ * 保存时会与上一条通知合并：相邻或重叠的插入、删除和更新合并为一个范围，
+ * 刚插入的item的更新和删除直接抵消，{@link RecyclerView.AdapterDataObserver#onChanged()}会丢弃之前所有的通知</p>
+ * <p>除了通知之外的所有方法都直接交给被包装的Adapter处理。在两次{@link #flush()}之间，
+ * 被包装的Adapter的数据已经变化而RecyclerView还不知道，所以{@link #getItemCount()}返回上一次发出通知时的数量，
+ * 使RecyclerView的一致性检查不会失败。调用者仍然必须保证RecyclerView在布局和滑动之前先调用{@link #flush()}，
+ * 滑动时收到的通知应该立即发出，否则绑定的可能是错误的item</p>
+ *
+ * @author Shyky
+ * @version 1.0
+ * @date 2026/10/18
+ * @since 1.3
+ */
+public class NotificationBatchingAdapter extends RecyclerView.Adapter implements BackgroundViewHolderFactory {
+    private static final int OP_INSERT = 1;
+    private static final int OP_REMOVE = 2;
+    private static final int OP_CHANGE = 3;
+    private static final int OP_MOVE = 4;
+    /**
+     * 每条通知在{@link #ops}中占用的int数量：类型、起始位置和数量（移动时为目标位置）
+     */
+    private static final int OP_SIZE = 3;
+
+    private final RecyclerView.Adapter adapter;
+    private int[] ops = new int[OP_SIZE * 16];
+    private Object[] payloads = new Object[16];
+    private int opCount;
+    /**
+     * 是否收到了{@link RecyclerView.AdapterDataObserver#onChanged()}，此时只需要发出一次notifyDataSetChanged()
+     */
+    private boolean dataSetChanged;
+    private int observerCount;
+    private Callback callback;
+    /**
+     * 上一次发出通知时被包装的Adapter的item数量，即RecyclerView知道的数量，有通知等待发出时由{@link #getItemCount()}返回
+     */
+    private int flushedItemCount;
+
+    /**
+     * 第一条通知被保存时回调，用于安排下一次{@link #flush()}
+     */
+    public interface Callback {
+        void onNotificationPending(NotificationBatchingAdapter adapter);
+    }
+
+    private final RecyclerView.AdapterDataObserver innerObserver = new RecyclerView.AdapterDataObserver() {
+        @Override
+        public void onChanged() {
+            final boolean wasPending = hasPendingNotifications();
+            clearPending();
+            dataSetChanged = true;
+            onPending(wasPending);
+        }
+
+        @Override
+        public void onItemRangeChanged(int positionStart, int itemCount) {
+            onItemRangeChanged(positionStart, itemCount, null);
+        }
+
+        @Override
+        public void onItemRangeChanged(int positionStart, int itemCount, Object payload) {
+            addOp(OP_CHANGE, positionStart, itemCount, payload);
+        }
+
+        @Override
+        public void onItemRangeInserted(int positionStart, int itemCount) {
+            addOp(OP_INSERT, positionStart, itemCount, null);
+        }
+
+        @Override
+        public void onItemRangeRemoved(int positionStart, int itemCount) {
+            addOp(OP_REMOVE, positionStart, itemCount, null);
+        }
+
+        @Override
+        public void onItemRangeMoved(int fromPosition, int toPosition, int itemCount) {
+            if (itemCount == 1) {
+                addOp(OP_MOVE, fromPosition, toPosition, null);
+            } else {
+                // RecyclerView只支持移动单个item
+                onChanged();
+            }
+        }
+    };
+
+    public NotificationBatchingAdapter(@NonNull RecyclerView.Adapter adapter) {
+        this.adapter = adapter;
+        // RecyclerView注册观察者之后不能再修改
+        setHasStableIds(adapter.hasStableIds());
+    }
+
+    /**
+     * 获取被包装的Adapter
+     *
+     * @return 被包装的Adapter
+     */
+    public RecyclerView.Adapter getWrappedAdapter() {
+        return adapter;
+    }
+
+    /**
+     * 设置有通知等待发出时的回调
+     *
+     * @param callback 回调，为null时不再回调
+     */
+    public void setCallback(Callback callback) {
+        this.callback = callback;
+    }
+
+    /**
+     * 是否有还没有发出的通知
+     *
+     * @return 有还没有发出的通知时返回true
+     */
+    public boolean hasPendingNotifications() {
+        return dataSetChanged || opCount > 0;
+    }
+
+    /**
+     * 发出所有保存的通知
+     */
+    @MainThread
+    public void flush() {
+        if (dataSetChanged) {
+            clearPending();
+            flushedItemCount = adapter.getItemCount();
+            notifyDataSetChanged();
+            return;
+        }
+        // 先清空再发出，观察者在回调中引起的新通知会被重新保存
+        final int count = opCount;
+        final int[] pendingOps = Arrays.copyOf(ops, count * OP_SIZE);
+        final Object[] pendingPayloads = Arrays.copyOf(payloads, count);
+        clearPending();
+        // 观察者在回调中引起的新通知等待发出时，RecyclerView知道的是现在的数量
+        flushedItemCount = adapter.getItemCount();
+        for (int i = 0; i < count; i++) {
+            final int start = pendingOps[i * OP_SIZE + 1];
+            final int value = pendingOps[i * OP_SIZE + 2];
+            switch (pendingOps[i * OP_SIZE]) {
+                case OP_INSERT:
+                    notifyItemRangeInserted(start, value);
+                    break;
+                case OP_REMOVE:
+                    notifyItemRangeRemoved(start, value);
+                    break;
+                case OP_CHANGE:
+                    notifyItemRangeChanged(start, value, pendingPayloads[i]);
+                    break;
+                case OP_MOVE:
+                    notifyItemMoved(start, value);
+                    break;
+            }
+        }
+    }
+
+    private void addOp(int type, int start, int value, Object payload) {
+        if (dataSetChanged) {
+            // 已经要刷新整个列表了
+            return;
+        }
+        final boolean wasPending = hasPendingNotifications();
+        if (!mergeWithLast(type, start, value, payload)) {
+            if (opCount == payloads.length) {
+                payloads = Arrays.copyOf(payloads, opCount * 2);
+                ops = Arrays.copyOf(ops, opCount * 2 * OP_SIZE);
+            }
+            ops[opCount * OP_SIZE] = type;
+            ops[opCount * OP_SIZE + 1] = start;
+            ops[opCount * OP_SIZE + 2] = value;
+            payloads[opCount] = payload;
+            opCount++;
+        }
+        onPending(wasPending);
+    }
+
+    /**
+     * 尝试将通知合并到上一条通知中
+     *
+     * @return 合并成功或通知被抵消时返回true
+     */
+    private boolean mergeWithLast(int type, int start, int count, Object payload) {
+        if (opCount == 0) {
+            return false;
+        }
+        final int last = (opCount - 1) * OP_SIZE;
+        final int lastType = ops[last];
+        final int lastStart = ops[last + 1];
+        final int lastCount = ops[last + 2];
+        final int lastEnd = lastStart + lastCount;
+        switch (type) {
+            case OP_INSERT:
+                if (lastType == OP_INSERT && start >= lastStart && start <= lastEnd) {
+                    // 插入到刚插入的范围中间或两端，合并后的范围仍然是连续的
+                    ops[last + 2] = lastCount + count;
+                    return true;
+                }
+                return false;
+            case OP_REMOVE:
+                if (lastType == OP_REMOVE && lastStart >= start && lastStart <= start + count) {
+                    // 删除的范围包含了上一次删除的位置，对原来的列表来说删除的仍然是连续的一段
+                    ops[last + 1] = start;
+                    ops[last + 2] = lastCount + count;
+                    return true;
+                }
+                if (lastType == OP_INSERT && start >= lastStart && start + count <= lastEnd) {
+                    // 只删除了刚插入的item
+                    if (lastCount == count) {
+                        payloads[--opCount] = null;
+                    } else {
+                        ops[last + 2] = lastCount - count;
+                    }
+                    return true;
+                }
+                return false;
+            case OP_CHANGE:
+                if (lastType == OP_INSERT && start >= lastStart && start + count <= lastEnd) {
+                    // 刚插入的item无论如何都会被绑定
+                    return true;
+                }
+                if (lastType == OP_CHANGE && start <= lastEnd && lastStart <= start + count
+                        && (payload == null ? payloads[opCount - 1] == null : payload.equals(payloads[opCount - 1]))) {
+                    final int mergedStart = Math.min(start, lastStart);
+                    ops[last + 1] = mergedStart;
+                    ops[last + 2] = Math.max(start + count, lastEnd) - mergedStart;
+                    return true;
+                }
+                return false;
+            default:
+                return false;
+        }
+    }
+
+    private void onPending(boolean wasPending) {
+        if (!wasPending && hasPendingNotifications() && callback != null) {
+            callback.onNotificationPending(this);
+        }
+    }
+
+    private void clearPending() {
+        Arrays.fill(payloads, 0, opCount, null);
+        opCount = 0;
+        dataSetChanged = false;
+    }
+
+    @Override
+    public void registerAdapterDataObserver(RecyclerView.AdapterDataObserver observer) {
+        super.registerAdapterDataObserver(observer);
+        if (observerCount++ == 0) {
+            adapter.registerAdapterDataObserver(innerObserver);
+            flushedItemCount = adapter.getItemCount();
+        }
+    }
+
+    @Override
+    public void unregisterAdapterDataObserver(RecyclerView.AdapterDataObserver observer) {
+        super.unregisterAdapterDataObserver(observer);
+        if (--observerCount == 0) {
+            adapter.unregisterAdapterDataObserver(innerObserver);
+            // 没有观察者了，保存的通知也不再需要
+            clearPending();
+        }
+    }
+
+    @Override
+    public RecyclerView.ViewHolder onCreateViewHolder(ViewGroup parent, int viewType) {
+        return adapter.onCreateViewHolder(parent, viewType);
+    }
+
+    @Override
+    public void onBindViewHolder(RecyclerView.ViewHolder holder, int position) {
+        adapter.onBindViewHolder(holder, position);
+    }
+
+    @Override
+    public void onBindViewHolder(RecyclerView.ViewHolder holder, int position, List payloads) {
+        adapter.onBindViewHolder(holder, position, payloads);
+    }
+
+    @Override
+    public boolean canCreateViewHolderInBackground(int viewType) {
+        return adapter instanceof BackgroundViewHolderFactory
+                && ((BackgroundViewHolderFactory) adapter).canCreateViewHolderInBackground(viewType);
+    }
+
+    @Override
+    public int getItemViewType(int position) {
+        return adapter.getItemViewType(position);
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return adapter.getItemId(position);
+    }
+
+    @Override
+    public int getItemCount() {
+        // 在通知发出之前，被包装的Adapter的数量与RecyclerView知道的不一致，例如删除后RecyclerView会用已经不存在的位置检查一致性
+        return hasPendingNotifications() ? flushedItemCount : adapter.getItemCount();
+    }
+
+    @Override
+    public void onViewRecycled(RecyclerView.ViewHolder holder) {
+        adapter.onViewRecycled(holder);
+    }
+
+    @Override
+    public boolean onFailedToRecycleView(RecyclerView.ViewHolder holder) {
+        return adapter.onFailedToRecycleView(holder);
+    }
+
+    @Override
+    public void onViewAttachedToWindow(RecyclerView.ViewHolder holder) {
+        adapter.onViewAttachedToWindow(holder);
+    }
+
+    @Override
+    public void onViewDetachedFromWindow(RecyclerView.ViewHolder holder) {
+        adapter.onViewDetachedFromWindow(holder);
+    }
+
+    @Override
+    public void onAttachedToRecyclerView(RecyclerView recyclerView) {
+        adapter.onAttachedToRecyclerView(recyclerView);
+    }
+
+    @Override
+    public void onDetachedFromRecyclerView(RecyclerView recyclerView) {
+        adapter.onDetachedFromRecyclerView(recyclerView);
+    }
+}
@@ -0,0 +1,463 @@
+package com.shyky.library.adapter;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.support.annotation.IdRes;
+import android.support.annotation.LayoutRes;
+import android.support.annotation.MainThread;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.WorkerThread;
+import android.support.v7.widget.RecyclerView;
+import android.util.Log;
+import android.util.SparseArray;
+import android.util.SparseBooleanArray;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 分页加载数据的Adapter
+ * <p>与{@link ArrayAdapter}一样将每个item的toString()显示在一个TextView中，但不需要事先把所有数据加载到内存，
+ * 而是由{@link DataSource}在后台线程中按固定大小的页加载，滑动时预加载即将显示的页，
+ * 尚未加载的item显示占位文字，距离当前位置较远的页会被释放以限制内存占用</p>
+ *
+ * @author Shyky
+ * @version 1.0
+ * @date 2026/10/18
+ * @since 1.3
+ */
+public class PagedArrayAdapter<T> extends RecyclerView.Adapter {
+    private static final String TAG = "PagedArrayAdapter";
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    /**
+     * Shared executor used to load pages when no executor was set with {@link #setLoadExecutor(Executor)}.
+     */
+    private static Executor sLoadExecutor;
+
+    private final Context mContext;
+    private final LayoutInflater mInflater;
+    private final int mResource;
+    private final int mFieldId;
+    private final Handler mMainHandler = new Handler(Looper.getMainLooper());
+    private DataSource<T> mDataSource;
+    private Executor mLoadExecutor;
+    private final int mPageSize;
+    private int mPrefetchDistance;
+    private int mMaxLoadedPages;
+    private CharSequence mPlaceholderText = "";
+    /**
+     * The total number of items, as reported by {@link DataSource#getCount()}.
+     */
+    private int mItemCount;
+    /**
+     * The loaded pages keyed by page index, and the pages that are being loaded.
+     */
+    private final SparseArray<List<T>> mPages = new SparseArray<>();
+    private final SparseBooleanArray mLoadingPages = new SparseBooleanArray();
+    /**
+     * The page that was accessed last, pages far away from it are dropped first.
+     */
+    private int mLastAccessedPage;
+    /**
+     * Incremented when the data source changes, results of loads started before are dropped.
+     */
+    private int mGeneration;
+    /**
+     * Whether the number of items was requested from the data source, the first request is made
+     * when the adapter is attached so that an executor set after construction is used.
+     */
+    private boolean mCountRequested;
+
+    /**
+     * Provides the data displayed by a {@link PagedArrayAdapter}. All methods are called on a
+     * background thread.
+     * <p>Exceptions thrown by these methods are logged. A page that failed to load is loaded
+     * again the next time one of its items is bound, a failed count is loaded again the next
+     * time the adapter is attached or {@link #invalidate()} is called.</p>
+     *
+     * @param <T> The type of the items.
+     */
+    public interface DataSource<T> {
+        /**
+         * @return The total number of items.
+         */
+        @WorkerThread
+        int getCount();
+
+        /**
+         * Loads a range of items.
+         *
+         * @param startPosition The position of the first item to load.
+         * @param loadCount     The number of items to load, never past the end of the data.
+         * @return The loaded items, exactly loadCount of them.
+         */
+        @WorkerThread
+        @NonNull
+        List<T> loadRange(int startPosition, int loadCount);
+    }
+
+    private class TextViewHolder extends RecyclerView.ViewHolder {
+        public TextView textView;
+
+        public TextViewHolder(View itemView) {
+            super(itemView);
+            try {
+                if (mFieldId == 0) {
+                    //  If no custom field is assigned, assume the whole resource is a TextView
+                    textView = (TextView) itemView;
+                } else {
+                    //  Otherwise, find the TextView field within the layout
+                    textView = (TextView) itemView.findViewById(mFieldId);
+
+                    if (textView == null) {
+                        throw new RuntimeException("Failed to find view with ID "
+                                + mContext.getResources().getResourceName(mFieldId)
+                                + " in item layout");
+                    }
+                }
+            } catch (ClassCastException e) {
+                Log.e(TAG, "You must supply a resource ID for a TextView");
+                throw new IllegalStateException(
+                        "PagedArrayAdapter requires the resource ID to be a TextView", e);
+            }
+        }
+    }
+
+    /**
+     * Constructor
+     *
+     * @param context    The current context.
+     * @param resource   The resource ID for a layout file containing a TextView to use when
+     *                   instantiating views.
+     * @param dataSource The source of the items to display.
+     */
+    public PagedArrayAdapter(@NonNull Context context, @LayoutRes int resource, @NonNull DataSource<T> dataSource) {
+        this(context, resource, 0, dataSource, DEFAULT_PAGE_SIZE);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param context            The current context.
+     * @param resource           The resource ID for a layout file containing a layout to use when
+     *                           instantiating views.
+     * @param textViewResourceId The id of the TextView within the layout resource to be populated
+     * @param dataSource         The source of the items to display.
+     * @param pageSize           The number of items loaded at once.
+     */
+    public PagedArrayAdapter(@NonNull Context context, @LayoutRes int resource, @IdRes int textViewResourceId,
+                             @NonNull DataSource<T> dataSource, int pageSize) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Page size must be positive.");
+        }
+        mContext = context;
+        mInflater = LayoutInflater.from(context);
+        mResource = resource;
+        mFieldId = textViewResourceId;
+        mPageSize = pageSize;
+        mPrefetchDistance = pageSize;
+        mMaxLoadedPages = 10;
+        mDataSource = dataSource;
+    }
+
+    /**
+     * Replaces the data source. All loaded pages are dropped and the number of items is loaded
+     * again from the new source. The data source passed to the constructor is first queried when
+     * the adapter is attached to a RecyclerView.
+     *
+     * @param dataSource The source of the items to display.
+     */
+    @MainThread
+    public void setDataSource(@NonNull DataSource<T> dataSource) {
+        mDataSource = dataSource;
+        invalidate();
+    }
+
+    /**
+     * Drops all loaded pages and loads the number of items and the visible pages again, for
+     * example after the content of the data source changed.
+     */
+    @MainThread
+    public void invalidate() {
+        final int generation = ++mGeneration;
+        final DataSource<T> dataSource = mDataSource;
+        mCountRequested = true;
+        mPages.clear();
+        mLoadingPages.clear();
+        getLoadExecutor().execute(new Runnable() {
+            @Override
+            public void run() {
+                int count;
+                try {
+                    count = dataSource.getCount();
+                } catch (RuntimeException e) {
+                    Log.e(TAG, "Failed to load the number of items", e);
+                    count = -1;
+                }
+                final int loadedCount = count;
+                mMainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (generation != mGeneration) {
+                            return;
+                        }
+                        if (loadedCount >= 0) {
+                            onCountLoaded(loadedCount);
+                        } else {
+                            // Request the count again the next time the adapter is attached
+                            mCountRequested = false;
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Sets how many items before and after an accessed item are loaded in advance. The default
+     * is one page.
+     *
+     * @param prefetchDistance The number of items to load ahead.
+     */
+    public void setPrefetchDistance(int prefetchDistance) {
+        mPrefetchDistance = Math.max(0, prefetchDistance);
+    }
+
+    /**
+     * Sets how many pages are kept in memory at most. When more pages are loaded, the ones
+     * farthest away from the last accessed item are dropped. The default is 10.
+     * <p>The pages loaded in advance around the last accessed item are always kept, so at least
+     * {@code 2 * ceil(prefetchDistance / pageSize) + 1} pages are kept whatever the value set
+     * here. The value should also cover the pages visible at once, otherwise visible pages are
+     * dropped and loaded again while scrolling.</p>
+     *
+     * @param maxLoadedPages The maximum number of pages to keep.
+     */
+    public void setMaxLoadedPages(int maxLoadedPages) {
+        mMaxLoadedPages = maxLoadedPages;
+        trimPages();
+    }
+
+    /**
+     * Sets the text displayed for items whose page has not been loaded yet. The default is empty.
+     *
+     * @param placeholderText The text to display.
+     */
+    public void setPlaceholderText(@NonNull CharSequence placeholderText) {
+        mPlaceholderText = placeholderText;
+    }
+
+    /**
+     * Sets the executor used to load pages. By default an executor shared by all paged array
+     * adapters is used.
+     *
+     * @param executor The executor to use, or null to use the default one.
+     */
+    public void setLoadExecutor(@Nullable Executor executor) {
+        mLoadExecutor = executor;
+    }
+
+    /**
+     * Returns the context associated with this adapter.
+     *
+     * @return The Context associated with this adapter.
+     */
+    public
+    @NonNull
+    Context getContext() {
+        return mContext;
+    }
+
+    /**
+     * Returns the item at the specified position and loads the pages around it.
+     *
+     * @param position The position of the item.
+     * @return The item, or null when its page has not been loaded yet.
+     */
+    @MainThread
+    public
+    @Nullable
+    T getItem(int position) {
+        final int page = position / mPageSize;
+        mLastAccessedPage = page;
+        loadAround(position);
+        final List<T> items = mPages.get(page);
+        return items == null ? null : items.get(position - page * mPageSize);
+    }
+
+    /**
+     * @param position The position of the item.
+     * @return Whether the page containing the item is in memory.
+     */
+    public boolean isLoaded(int position) {
+        return mPages.get(position / mPageSize) != null;
+    }
+
+    @Override
+    public void onAttachedToRecyclerView(RecyclerView recyclerView) {
+        if (!mCountRequested) {
+            invalidate();
+        }
+    }
+
+    @Override
+    public RecyclerView.ViewHolder onCreateViewHolder(ViewGroup parent, int viewType) {
+        return new TextViewHolder(mInflater.inflate(mResource, parent, false));
+    }
+
+    @Override
+    public void onBindViewHolder(RecyclerView.ViewHolder holder, int position) {
+        final TextViewHolder viewHolder = (TextViewHolder) holder;
+        final T item = getItem(position);
+        if (item == null && !isLoaded(position)) {
+            viewHolder.textView.setText(mPlaceholderText);
+        } else if (item instanceof CharSequence) {
+            viewHolder.textView.setText((CharSequence) item);
+        } else {
+            viewHolder.textView.setText(String.valueOf(item));
+        }
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return position;
+    }
+
+    @Override
+    public int getItemCount() {
+        return mItemCount;
+    }
+
+    private void onCountLoaded(int count) {
+        final int previousCount = mItemCount;
+        mItemCount = count;
+        if (previousCount == 0) {
+            if (count > 0) notifyItemRangeInserted(0, count);
+        } else {
+            // The pages were dropped, every bound item has to be loaded again
+            notifyDataSetChanged();
+        }
+    }
+
+    private void loadAround(int position) {
+        if (position < 0 || position >= mItemCount) {
+            return;
+        }
+        final int firstPage = Math.max(0, position - mPrefetchDistance) / mPageSize;
+        final int lastPage = Math.min(mItemCount - 1, position + mPrefetchDistance) / mPageSize;
+        for (int page = firstPage; page <= lastPage; page++) {
+            if (mPages.get(page) == null && !mLoadingPages.get(page)) {
+                loadPage(page);
+            }
+        }
+    }
+
+    private void loadPage(final int page) {
+        mLoadingPages.put(page, true);
+        final int generation = mGeneration;
+        final DataSource<T> dataSource = mDataSource;
+        final int startPosition = page * mPageSize;
+        final int loadCount = Math.min(mPageSize, mItemCount - startPosition);
+        getLoadExecutor().execute(new Runnable() {
+            @Override
+            public void run() {
+                List<T> items;
+                try {
+                    items = dataSource.loadRange(startPosition, loadCount);
+                    if (items.size() != loadCount) {
+                        Log.e(TAG, "Loaded " + items.size() + " items instead of " + loadCount
+                                + " at position " + startPosition);
+                        items = null;
+                    }
+                } catch (RuntimeException e) {
+                    Log.e(TAG, "Failed to load " + loadCount + " items at position " + startPosition, e);
+                    items = null;
+                }
+                final List<T> loadedItems = items;
+                mMainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (generation != mGeneration) {
+                            return;
+                        }
+                        if (loadedItems != null) {
+                            onPageLoaded(page, loadedItems);
+                        } else {
+                            // Its placeholders stay, the next bind of one of its items loads the page again
+                            mLoadingPages.delete(page);
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    private void onPageLoaded(int page, List<T> items) {
+        mLoadingPages.delete(page);
+        mPages.put(page, items);
+        trimPages();
+        // Replace the placeholders with the loaded items
+        notifyItemRangeChanged(page * mPageSize, items.size());
+    }
+
+    /**
+     * Drops the pages farthest away from the last accessed page until at most
+     * {@link #mMaxLoadedPages} pages are left. The limit is never lower than the number of pages
+     * {@link #loadAround(int)} loads, so that a page in that window is never dropped: it would be
+     * loaded again right away, rebind its items and drop another page, over and over.
+     */
+    private void trimPages() {
+        final int prefetchPages = (mPrefetchDistance + mPageSize - 1) / mPageSize;
+        final int maxLoadedPages = Math.max(mMaxLoadedPages, 2 * prefetchPages + 1);
+        while (mPages.size() > maxLoadedPages) {
+            int farthest = 0;
+            int farthestDistance = -1;
+            for (int i = 0; i < mPages.size(); i++) {
+                final int distance = Math.abs(mPages.keyAt(i) - mLastAccessedPage);
+                if (distance > farthestDistance) {
+                    farthest = i;
+                    farthestDistance = distance;
+                }
+            }
+            mPages.removeAt(farthest);
+        }
+    }
+
+    private Executor getLoadExecutor() {
+        if (mLoadExecutor != null) {
+            return mLoadExecutor;
+        }
+        synchronized (PagedArrayAdapter.class) {
+            if (sLoadExecutor == null) {
+                sLoadExecutor = Executors.newFixedThreadPool(2, new ThreadFactory() {
+                    private final AtomicInteger mCount = new AtomicInteger(1);
+
+                    @Override
+                    public Thread newThread(@NonNull final Runnable runnable) {
+                        final Thread thread = new Thread(new Runnable() {
+                            @Override
+                            public void run() {
+                                // Leave the CPU to the UI thread while pages are loaded
+                                Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                                runnable.run();
+                            }
+                        }, "PagedArrayAdapter load #" + mCount.getAndIncrement());
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+            }
+            return sLoadExecutor;
+        }
+    }
+}
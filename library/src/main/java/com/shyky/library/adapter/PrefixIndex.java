@@ -0,0 +1,301 @@
+package com.shyky.library.adapter;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * 用于{@link ArrayAdapter}过滤的前缀索引
+ * <p>每个item的toString()只在加入索引时转换为小写并拆分为单词一次，所有单词按字典序保存在一个有序数组中，
+ * 过滤时通过二分查找定位以指定前缀开头的单词，不再需要遍历所有item</p>
+ * <p>匹配规则与{@link ArrayAdapter}的默认过滤规则相同：整个文本或其中任意一个以空格分隔的单词以前缀开头</p>
+ * <p>此类不是线程安全的，调用者需要自行同步</p>
+ *
+ * @author Shyky
+ * @version 1.0
+ * @date 2026/10/18
+ * @since 1.3
+ */
+class PrefixIndex<T> {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final Comparator<Object[]> TOKEN_COMPARATOR = new Comparator<Object[]>() {
+        @Override
+        public int compare(Object[] lhs, Object[] rhs) {
+            return ((String) lhs[0]).compareTo((String) rhs[0]);
+        }
+    };
+
+    /**
+     * An indexed item, in the same order as the indexed list.
+     */
+    private static final class Node<T> {
+        final T item;
+        final String[] tokens;
+        /**
+         * Position of the item in the indexed list, only valid up to {@link #validIndexCount}.
+         */
+        int index;
+        /**
+         * Query that last matched this node, used to report each item once.
+         */
+        int stamp;
+
+        Node(T item, String[] tokens) {
+            this.item = item;
+            this.tokens = tokens;
+        }
+    }
+
+    private final ArrayList<Node<T>> nodes = new ArrayList<>();
+    /**
+     * Sorted tokens and the node each of them belongs to.
+     */
+    private String[] tokens = new String[INITIAL_CAPACITY];
+    private Node<?>[] owners = new Node<?>[INITIAL_CAPACITY];
+    private int tokenCount;
+    /**
+     * Number of leading nodes whose {@link Node#index} is up to date.
+     */
+    private int validIndexCount;
+    private int queryStamp;
+
+    /**
+     * Replaces the content of the index with the specified items.
+     *
+     * @param items The items to index, in list order.
+     */
+    void build(@NonNull List<T> items) {
+        nodes.clear();
+        nodes.ensureCapacity(items.size());
+        final ArrayList<Object[]> entries = new ArrayList<>(items.size() * 2);
+        for (int i = 0; i < items.size(); i++) {
+            final Node<T> node = newNode(items.get(i));
+            node.index = i;
+            nodes.add(node);
+            for (String token : node.tokens) {
+                entries.add(new Object[]{token, node});
+            }
+        }
+        Collections.sort(entries, TOKEN_COMPARATOR);
+
+        final int capacity = Math.max(INITIAL_CAPACITY, entries.size());
+        tokens = new String[capacity];
+        owners = new Node<?>[capacity];
+        tokenCount = entries.size();
+        for (int i = 0; i < tokenCount; i++) {
+            final Object[] entry = entries.get(i);
+            tokens[i] = (String) entry[0];
+            owners[i] = (Node<?>) entry[1];
+        }
+        validIndexCount = nodes.size();
+    }
+
+    /**
+     * Inserts an item into the index.
+     *
+     * @param index The position of the item in the indexed list.
+     * @param item  The item to insert.
+     */
+    void insert(int index, @Nullable T item) {
+        final Node<T> node = newNode(item);
+        nodes.add(index, node);
+        validIndexCount = Math.min(validIndexCount, index);
+        for (String token : node.tokens) {
+            insertToken(token, node);
+        }
+    }
+
+    /**
+     * Appends an item to the index.
+     *
+     * @param item The item to append.
+     */
+    void add(@Nullable T item) {
+        insert(nodes.size(), item);
+    }
+
+    /**
+     * Appends several items to the index. Their tokens are sorted among themselves and merged
+     * with the indexed tokens in a single pass, instead of being inserted one by one.
+     *
+     * @param items The items to append, in list order.
+     */
+    void addAll(@NonNull Collection<? extends T> items) {
+        final ArrayList<Object[]> entries = new ArrayList<>(items.size() * 2);
+        nodes.ensureCapacity(nodes.size() + items.size());
+        for (T item : items) {
+            final Node<T> node = newNode(item);
+            nodes.add(node);
+            for (String token : node.tokens) {
+                entries.add(new Object[]{token, node});
+            }
+        }
+        Collections.sort(entries, TOKEN_COMPARATOR);
+
+        final int newCount = tokenCount + entries.size();
+        if (newCount > tokens.length) {
+            final int capacity = Math.max(newCount, tokenCount * 2);
+            tokens = Arrays.copyOf(tokens, capacity);
+            owners = Arrays.copyOf(owners, capacity);
+        }
+        // Merge from the end so that the indexed tokens can be moved in place, equal tokens of
+        // appended items go after the indexed ones like in insertToken()
+        int oldIndex = tokenCount - 1;
+        int newIndex = entries.size() - 1;
+        for (int i = newCount - 1; newIndex >= 0; i--) {
+            final Object[] entry = entries.get(newIndex);
+            if (oldIndex >= 0 && tokens[oldIndex].compareTo((String) entry[0]) > 0) {
+                tokens[i] = tokens[oldIndex];
+                owners[i] = owners[oldIndex];
+                oldIndex--;
+            } else {
+                tokens[i] = (String) entry[0];
+                owners[i] = (Node<?>) entry[1];
+                newIndex--;
+            }
+        }
+        tokenCount = newCount;
+    }
+
+    /**
+     * Removes the item at the specified position from the index.
+     *
+     * @param index The position of the item in the indexed list.
+     */
+    void remove(int index) {
+        final Node<T> node = nodes.remove(index);
+        validIndexCount = Math.min(validIndexCount, index);
+        for (String token : node.tokens) {
+            removeToken(token, node);
+        }
+    }
+
+    void clear() {
+        nodes.clear();
+        Arrays.fill(tokens, 0, tokenCount, null);
+        Arrays.fill(owners, 0, tokenCount, null);
+        tokenCount = 0;
+        validIndexCount = 0;
+    }
+
+    /**
+     * Looks up the items whose text, or one of its words, starts with the specified prefix.
+     *
+     * @param prefix The lower case prefix.
+     * @return The matching items, in list order.
+     */
+    @NonNull
+    ChunkedList<T> query(@NonNull String prefix) {
+        final int stamp = ++queryStamp;
+        final ArrayList<Node<T>> matches = new ArrayList<>();
+        for (int i = lowerBound(prefix); i < tokenCount && tokens[i].startsWith(prefix); i++) {
+            @SuppressWarnings("unchecked")
+            final Node<T> node = (Node<T>) owners[i];
+            if (node.stamp != stamp) {
+                node.stamp = stamp;
+                matches.add(node);
+            }
+        }
+
+        updateIndexes();
+        Collections.sort(matches, new Comparator<Node<T>>() {
+            @Override
+            public int compare(Node<T> lhs, Node<T> rhs) {
+                return lhs.index < rhs.index ? -1 : (lhs.index == rhs.index ? 0 : 1);
+            }
+        });
+        final ChunkedList<T> values = new ChunkedList<>();
+        for (Node<T> node : matches) {
+            values.add(node.item);
+        }
+        return values;
+    }
+
+    private Node<T> newNode(T item) {
+        final String valueText = String.valueOf(item).toLowerCase();
+        final String[] words = valueText.split(" ");
+        final ArrayList<String> itemTokens = new ArrayList<>(words.length + 1);
+        itemTokens.add(valueText);
+        for (String word : words) {
+            if (!word.isEmpty() && !itemTokens.contains(word)) {
+                itemTokens.add(word);
+            }
+        }
+        return new Node<>(item, itemTokens.toArray(new String[itemTokens.size()]));
+    }
+
+    private void updateIndexes() {
+        final int count = nodes.size();
+        for (int i = validIndexCount; i < count; i++) {
+            nodes.get(i).index = i;
+        }
+        validIndexCount = count;
+    }
+
+    private void insertToken(String token, Node<T> node) {
+        if (tokenCount == tokens.length) {
+            final int capacity = tokenCount * 2;
+            tokens = Arrays.copyOf(tokens, capacity);
+            owners = Arrays.copyOf(owners, capacity);
+        }
+        final int position = upperBound(token);
+        System.arraycopy(tokens, position, tokens, position + 1, tokenCount - position);
+        System.arraycopy(owners, position, owners, position + 1, tokenCount - position);
+        tokens[position] = token;
+        owners[position] = node;
+        tokenCount++;
+    }
+
+    private void removeToken(String token, Node<T> node) {
+        for (int i = lowerBound(token); i < tokenCount && tokens[i].equals(token); i++) {
+            if (owners[i] == node) {
+                System.arraycopy(tokens, i + 1, tokens, i, tokenCount - i - 1);
+                System.arraycopy(owners, i + 1, owners, i, tokenCount - i - 1);
+                tokenCount--;
+                tokens[tokenCount] = null;
+                owners[tokenCount] = null;
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return The position of the first token that is not less than the key.
+     */
+    private int lowerBound(String key) {
+        int low = 0;
+        int high = tokenCount;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (tokens[mid].compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @return The position of the first token that is greater than the key.
+     */
+    private int upperBound(String key) {
+        int low = 0;
+        int high = tokenCount;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (tokens[mid].compareTo(key) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,284 @@
+package com.shyky.library.adapter;
+
+import android.graphics.Typeface;
+import android.os.Build;
+import android.support.annotation.MainThread;
+import android.support.annotation.NonNull;
+import android.text.Layout;
+import android.text.StaticLayout;
+import android.text.TextPaint;
+import android.util.LruCache;
+import android.widget.TextView;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * 在后台线程中预先排版即将显示的文字
+ * <p>根据最近一次绑定的TextView的宽度和文字样式，在后台线程中为即将显示的item创建{@link StaticLayout}，
+ * 预先完成文字的测量。系统会缓存测量过的单词，之后在主线程中为相同的文字和样式排版时可以直接使用这些结果。
+ * 进程内共用的测量缓存从Android 5.0开始才有，更早的版本上不会预先排版</p>
+ * <p>创建的排版不会保存，TextView也无法使用外部创建的排版，只记录已经排版过的文字、宽度和样式，避免重复排版。
+ * 记录的数量按估算的内存占用限制。所有实例共用一个低优先级的后台线程</p>
+ *
+ * @author Shyky
+ * @version 1.0
+ * @date 2026/10/18
+ * @since 1.3
+ */
+class TextLayoutPrefetcher {
+    /**
+     * Rough memory cost of a cache entry besides its text: the key and the cache node.
+     */
+    private static final int ENTRY_OVERHEAD_BYTES = 64;
+    /**
+     * Shared by all prefetchers, so that replacing a prefetcher does not leave a thread behind.
+     */
+    private static ExecutorService sExecutor;
+
+    /**
+     * The attributes of a TextView that affect how its text is laid out.
+     */
+    private static final class Style {
+        final TextPaint paint;
+        final int width;
+        final float spacingMultiplier;
+        final float spacingExtra;
+        final boolean includePadding;
+
+        Style(TextView textView, int width) {
+            // Copied because the TextView may change its paint while the worker uses it
+            paint = new TextPaint(textView.getPaint());
+            this.width = width;
+            spacingMultiplier = getLineSpacingMultiplier(textView);
+            spacingExtra = getLineSpacingExtra(textView);
+            includePadding = getIncludeFontPadding(textView);
+        }
+
+        boolean matches(TextView textView, int width) {
+            final TextPaint other = textView.getPaint();
+            return this.width == width
+                    && paint.getTextSize() == other.getTextSize()
+                    && paint.getTextScaleX() == other.getTextScaleX()
+                    && paint.getFlags() == other.getFlags()
+                    && sameTypeface(paint.getTypeface(), other.getTypeface())
+                    && spacingMultiplier == getLineSpacingMultiplier(textView)
+                    && spacingExtra == getLineSpacingExtra(textView)
+                    && includePadding == getIncludeFontPadding(textView);
+        }
+
+        // The getters below only exist since Jelly Bean, older versions use the defaults
+        private static float getLineSpacingMultiplier(TextView textView) {
+            return Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN ? textView.getLineSpacingMultiplier() : 1.0f;
+        }
+
+        private static float getLineSpacingExtra(TextView textView) {
+            return Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN ? textView.getLineSpacingExtra() : 0.0f;
+        }
+
+        private static boolean getIncludeFontPadding(TextView textView) {
+            return Build.VERSION.SDK_INT < Build.VERSION_CODES.JELLY_BEAN || textView.getIncludeFontPadding();
+        }
+
+        private static boolean sameTypeface(Typeface lhs, Typeface rhs) {
+            return lhs == null ? rhs == null : lhs.equals(rhs);
+        }
+    }
+
+    private static final class Key {
+        final String text;
+        final Style style;
+
+        Key(String text, Style style) {
+            this.text = text;
+            this.style = style;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            final Key key = (Key) o;
+            return style == key.style && text.equals(key.text);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * text.hashCode() + System.identityHashCode(style);
+        }
+    }
+
+    /**
+     * The texts that were already laid out, mapped to nothing. Only the keys are kept.
+     */
+    private final LruCache<Key, Boolean> cache;
+    private final int prefetchCount;
+    /**
+     * Set when the prefetcher was replaced, queued batches are then skipped.
+     */
+    private volatile boolean released;
+    /**
+     * The style of the last bound TextView, reused as long as it does not change.
+     */
+    private Style style;
+    /**
+     * The range of positions already handed to the worker, and the last bound position which
+     * tells the scroll direction.
+     */
+    private int prefetchedFrom = -1;
+    private int prefetchedTo = -1;
+    private int lastPosition = -1;
+
+    /**
+     * @param prefetchCount The number of items ahead of the bound one to lay out.
+     * @param maxBytes      The estimated memory the remembered texts may take at most.
+     */
+    TextLayoutPrefetcher(int prefetchCount, int maxBytes) {
+        this.prefetchCount = prefetchCount;
+        cache = new LruCache<Key, Boolean>(maxBytes) {
+            @Override
+            protected int sizeOf(Key key, Boolean value) {
+                return ENTRY_OVERHEAD_BYTES + 2 * key.text.length();
+            }
+        };
+    }
+
+    /**
+     * @return Whether laying out texts ahead of time helps on this device, that is whether the
+     * system shares measured words between threads.
+     */
+    static boolean isSupported() {
+        return Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP;
+    }
+
+    private static ExecutorService getExecutor() {
+        synchronized (TextLayoutPrefetcher.class) {
+            if (sExecutor == null) {
+                sExecutor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+                    @Override
+                    public Thread newThread(@NonNull Runnable runnable) {
+                        final Thread thread = new Thread(runnable, "TextLayoutPrefetcher");
+                        thread.setPriority(Thread.MIN_PRIORITY);
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+            }
+            return sExecutor;
+        }
+    }
+
+    /**
+     * Called after an item was bound, lays out the texts of the items that are likely to be
+     * bound next.
+     *
+     * @param textView The TextView the item was bound to.
+     * @param position The position of the bound item.
+     * @param texts    Provides the other items and their texts.
+     */
+    @MainThread
+    void onBind(@NonNull TextView textView, int position, @NonNull final TextProvider texts) {
+        final int width = textView.getWidth() - textView.getCompoundPaddingLeft() - textView.getCompoundPaddingRight();
+        if (width <= 0) {
+            // Not laid out yet, the width is unknown
+            return;
+        }
+        if (style == null || !style.matches(textView, width)) {
+            style = new Style(textView, width);
+            prefetchedFrom = prefetchedTo = position;
+        }
+
+        final boolean forward = position >= lastPosition;
+        lastPosition = position;
+        final int from;
+        final int to;
+        if (forward) {
+            from = Math.max(position + 1, prefetchedTo + 1);
+            to = Math.min(texts.getCount() - 1, position + prefetchCount);
+        } else {
+            from = Math.max(0, position - prefetchCount);
+            to = Math.min(position - 1, prefetchedFrom - 1);
+        }
+        if (from > to) {
+            return;
+        }
+        if (forward) {
+            prefetchedTo = to;
+            prefetchedFrom = Math.min(prefetchedFrom, from);
+        } else {
+            prefetchedFrom = from;
+            prefetchedTo = Math.max(prefetchedTo, to);
+        }
+
+        final Object[] batch = new Object[to - from + 1];
+        for (int i = from; i <= to; i++) {
+            batch[i - from] = texts.getItem(i);
+        }
+        final Style batchStyle = style;
+        getExecutor().execute(new Runnable() {
+            @Override
+            public void run() {
+                for (Object item : batch) {
+                    if (released) {
+                        return;
+                    }
+                    layOut(texts.getText(item), batchStyle);
+                }
+            }
+        });
+    }
+
+    /**
+     * Forgets which positions were laid out, for example after the data changed.
+     */
+    @MainThread
+    void reset() {
+        prefetchedFrom = prefetchedTo = lastPosition = -1;
+    }
+
+    /**
+     * Stops the batches that are still queued and forgets the laid out texts. Called when the
+     * prefetcher is replaced or disabled.
+     */
+    @MainThread
+    void release() {
+        released = true;
+        cache.evictAll();
+    }
+
+    private void layOut(CharSequence text, Style style) {
+        if (text == null) {
+            return;
+        }
+        final Key key = new Key(text.toString(), style);
+        if (cache.get(key) != null) {
+            return;
+        }
+        // Only the measurements the system keeps are of interest, the layout itself is dropped
+        new StaticLayout(text, style.paint, style.width, Layout.Alignment.ALIGN_NORMAL,
+                style.spacingMultiplier, style.spacingExtra, style.includePadding);
+        cache.put(key, Boolean.TRUE);
+    }
+
+    /**
+     * Gives the prefetcher access to the items of the adapter.
+     */
+    interface TextProvider {
+        /**
+         * Called on the main thread.
+         */
+        int getCount();
+
+        /**
+         * Called on the main thread.
+         */
+        Object getItem(int position);
+
+        /**
+         * Called on the worker thread to get the text of an item returned by {@link #getItem(int)}.
+         */
+        CharSequence getText(Object item);
+    }
+}
@@ -6,18 +6,113 @@ import android.support.v7.widget.RecyclerView;
 /**
  * 抽象的包装Adapter
  * <p>用于包装另一个Adapter</p>
+ * <p>被包装的Adapter发出的数据变化通知会加上{@link #getInnerPositionOffset()}后转发给观察者，
+ * 只有在有观察者时才会监听被包装的Adapter</p>
+ * <p>被包装的Adapter使用稳定的id时当前Adapter也使用，id同样按{@link #getInnerPositionOffset()}转发</p>
  *
  * @author Shyky
- * @version 1.1
+ * @version 1.2
  * @date 2017/3/6
  * @since 1.0
  */
-public abstract class WrapperAdapter extends RecyclerView.Adapter {
+public abstract class WrapperAdapter extends RecyclerView.Adapter implements BackgroundViewHolderFactory {
     protected Context context;
     protected RecyclerView.Adapter adapter;
+    /**
+     * 注册到当前Adapter的观察者数量
+     */
+    private int observerCount;
+    /**
+     * 监听被包装的Adapter，将其位置转换为当前Adapter中的位置后转发
+     */
+    private final RecyclerView.AdapterDataObserver innerObserver = new RecyclerView.AdapterDataObserver() {
+        @Override
+        public void onChanged() {
+            notifyDataSetChanged();
+        }
+
+        @Override
+        public void onItemRangeChanged(int positionStart, int itemCount) {
+            notifyItemRangeChanged(positionStart + getInnerPositionOffset(), itemCount);
+        }
+
+        @Override
+        public void onItemRangeChanged(int positionStart, int itemCount, Object payload) {
+            notifyItemRangeChanged(positionStart + getInnerPositionOffset(), itemCount, payload);
+        }
+
+        @Override
+        public void onItemRangeInserted(int positionStart, int itemCount) {
+            notifyItemRangeInserted(positionStart + getInnerPositionOffset(), itemCount);
+        }
+
+        @Override
+        public void onItemRangeRemoved(int positionStart, int itemCount) {
+            notifyItemRangeRemoved(positionStart + getInnerPositionOffset(), itemCount);
+        }
+
+        @Override
+        public void onItemRangeMoved(int fromPosition, int toPosition, int itemCount) {
+            if (itemCount == 1) {
+                final int offset = getInnerPositionOffset();
+                notifyItemMoved(fromPosition + offset, toPosition + offset);
+            } else {
+                // RecyclerView只支持移动单个item
+                notifyDataSetChanged();
+            }
+        }
+    };
 
     public WrapperAdapter(Context context, RecyclerView.Adapter adapter) {
         this.context = context;
         this.adapter = adapter;
+        // RecyclerView注册观察者之后不能再修改
+        setHasStableIds(adapter != null && adapter.hasStableIds());
+    }
+
+    /**
+     * 获取被包装的Adapter中的第一个item在当前Adapter中的位置
+     *
+     * @return 位置偏移量
+     */
+    protected int getInnerPositionOffset() {
+        return 0;
+    }
+
+    /**
+     * 获取被包装的Adapter
+     *
+     * @return 被包装的Adapter
+     */
+    public RecyclerView.Adapter getWrappedAdapter() {
+        return adapter;
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return adapter.getItemId(position - getInnerPositionOffset());
+    }
+
+    @Override
+    public boolean canCreateViewHolderInBackground(int viewType) {
+        return adapter instanceof BackgroundViewHolderFactory
+                && ((BackgroundViewHolderFactory) adapter).canCreateViewHolderInBackground(viewType);
+    }
+
+    @Override
+    public void registerAdapterDataObserver(RecyclerView.AdapterDataObserver observer) {
+        super.registerAdapterDataObserver(observer);
+        if (observerCount++ == 0) {
+            adapter.registerAdapterDataObserver(innerObserver);
+        }
+    }
+
+    @Override
+    public void unregisterAdapterDataObserver(RecyclerView.AdapterDataObserver observer) {
+        super.unregisterAdapterDataObserver(observer);
+        if (--observerCount == 0) {
+            // 没有观察者时不再监听，避免被包装的Adapter持有当前Adapter造成内存泄漏
+            adapter.unregisterAdapterDataObserver(innerObserver);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,231 @@
+package com.shyky.library.view.widget;
+
+import android.os.SystemClock;
+import android.support.annotation.NonNull;
+import android.support.v7.widget.RecyclerView;
+import android.view.View;
+
+/**
+ * 根据滑动方向和速度预测即将显示的item，通知{@link SmartRecyclerView.OnPrefetchListener}提前准备数据
+ * <p>预测的范围从最后一个（向前滑动时为第一个）可见的item开始，长度为按当前速度在{@link #LOOKAHEAD_MILLIS}内滑过的距离，
+ * 至少为半屏，最多为{@link #MAX_SCREENS}屏，因此fling时范围会随速度变大。范围变化时只通知新增的位置，
+ * 离开范围而又没有显示出来的位置会被取消。插入、删除或移动item时取消所有位置，下一次滑动时重新计算</p>
+ *
+ * @author Shyky
+ * @version 1.0
+ * @date 2026/10/18
+ * @since 1.3
+ */
+class DataPrefetcher extends RecyclerView.OnScrollListener {
+    private static final long LOOKAHEAD_MILLIS = 500;
+    private static final float MIN_SCREENS = 0.5f;
+    private static final float MAX_SCREENS = 4;
+    /**
+     * 两次滑动的间隔超过这个时间时不再参考之前的速度
+     */
+    private static final long VELOCITY_TIMEOUT_MILLIS = 100;
+
+    private final SmartRecyclerView recyclerView;
+    private final SmartRecyclerView.OnPrefetchListener listener;
+    private RecyclerView.Adapter adapter;
+    private boolean forward = true;
+    /**
+     * 当前的滑动速度，单位为像素每秒
+     */
+    private float speed;
+    private long lastScrollTime;
+    /**
+     * 已经通知的范围[prefetchStart, prefetchEnd)，以及计算新范围时的可见范围和新范围
+     */
+    private int prefetchStart;
+    private int prefetchEnd;
+    private int visibleStart;
+    private int visibleEnd;
+    private int targetStart;
+    private int targetEnd;
+
+    /**
+     * 只有位置发生变化时才取消，item的内容变化（例如分页加载完成）不影响预测的范围
+     */
+    private final RecyclerView.AdapterDataObserver dataObserver = new RecyclerView.AdapterDataObserver() {
+        @Override
+        public void onChanged() {
+            cancelAll();
+        }
+
+        @Override
+        public void onItemRangeInserted(int positionStart, int itemCount) {
+            cancelAll();
+        }
+
+        @Override
+        public void onItemRangeRemoved(int positionStart, int itemCount) {
+            cancelAll();
+        }
+
+        @Override
+        public void onItemRangeMoved(int fromPosition, int toPosition, int itemCount) {
+            cancelAll();
+        }
+    };
+
+    DataPrefetcher(@NonNull SmartRecyclerView recyclerView, @NonNull SmartRecyclerView.OnPrefetchListener listener) {
+        this.recyclerView = recyclerView;
+        this.listener = listener;
+    }
+
+    /**
+     * 设置监听数据变化的Adapter，即通过{@link SmartRecyclerView#setAdapter(RecyclerView.Adapter)}设置的Adapter
+     */
+    void setAdapter(RecyclerView.Adapter adapter) {
+        if (this.adapter == adapter) {
+            return;
+        }
+        cancelAll();
+        if (this.adapter != null) {
+            this.adapter.unregisterAdapterDataObserver(dataObserver);
+        }
+        this.adapter = adapter;
+        if (adapter != null) {
+            adapter.registerAdapterDataObserver(dataObserver);
+        }
+    }
+
+    /**
+     * 在列表开始fling时调用，不必等到滑动之后才得到速度
+     */
+    void onFling(int velocityX, int velocityY) {
+        final int velocity = canScrollVertically() ? velocityY : velocityX;
+        if (velocity != 0) {
+            forward = velocity > 0;
+            speed = Math.abs(velocity);
+            lastScrollTime = SystemClock.uptimeMillis();
+            update();
+        }
+    }
+
+    @Override
+    public void onScrolled(RecyclerView rv, int dx, int dy) {
+        final int delta = canScrollVertically() ? dy : dx;
+        if (delta != 0) {
+            final long now = SystemClock.uptimeMillis();
+            final long elapsed = now - lastScrollTime;
+            final float instantSpeed = Math.abs(delta) * 1000f / Math.max(1, elapsed);
+            final boolean newForward = delta > 0;
+            if (elapsed > VELOCITY_TIMEOUT_MILLIS || newForward != forward) {
+                speed = instantSpeed;
+            } else {
+                speed = (speed + instantSpeed) / 2;
+            }
+            forward = newForward;
+            lastScrollTime = now;
+        }
+        // 布局之后也会以0调用，此时按原来的方向和速度更新
+        update();
+    }
+
+    @Override
+    public void onScrollStateChanged(RecyclerView rv, int newState) {
+        if (newState == RecyclerView.SCROLL_STATE_IDLE) {
+            // 停下之后只保留最小的范围
+            speed = 0;
+            update();
+        }
+    }
+
+    /**
+     * 取消所有已经通知的位置
+     */
+    void cancelAll() {
+        if (prefetchEnd > prefetchStart) {
+            listener.onCancelPrefetch(prefetchStart, prefetchEnd - prefetchStart);
+        }
+        prefetchStart = prefetchEnd = 0;
+    }
+
+    private boolean canScrollVertically() {
+        final RecyclerView.LayoutManager layoutManager = recyclerView.getLayoutManager();
+        return layoutManager == null || layoutManager.canScrollVertically();
+    }
+
+    private void update() {
+        final int itemCount = adapter == null ? 0 : adapter.getItemCount();
+        final int childCount = recyclerView.getChildCount();
+        if (itemCount == 0 || childCount == 0) {
+            return;
+        }
+
+        // 可见的item的范围，header view和footer view分别当作位置-1和itemCount，数据变化之后还没有重新布局的子view不计算
+        final int headerCount = recyclerView.getHeaderViewsCount();
+        int first = Integer.MAX_VALUE;
+        int last = Integer.MIN_VALUE;
+        for (int i = 0; i < childCount; i++) {
+            final View child = recyclerView.getChildAt(i);
+            final int adapterPosition = recyclerView.getChildAdapterPosition(child);
+            if (adapterPosition == RecyclerView.NO_POSITION) {
+                continue;
+            }
+            final int position = Math.max(-1, Math.min(itemCount, adapterPosition - headerCount));
+            first = Math.min(first, position);
+            last = Math.max(last, position);
+        }
+        if (first > last) {
+            return;
+        }
+        visibleStart = Math.max(0, first);
+        visibleEnd = Math.min(itemCount, last + 1);
+
+        final boolean vertical = canScrollVertically();
+        final int extent = vertical
+                ? recyclerView.getHeight() - recyclerView.getPaddingTop() - recyclerView.getPaddingBottom()
+                : recyclerView.getWidth() - recyclerView.getPaddingLeft() - recyclerView.getPaddingRight();
+        if (extent <= 0) {
+            return;
+        }
+        final float windowPixels = Math.max(extent * MIN_SCREENS, Math.min(extent * MAX_SCREENS, speed * LOOKAHEAD_MILLIS / 1000));
+        final int windowItems = (int) Math.ceil(windowPixels * childCount / extent);
+        if (forward) {
+            targetStart = Math.min(itemCount, last + 1);
+            targetEnd = Math.min(itemCount, targetStart + windowItems);
+        } else {
+            targetEnd = Math.max(0, first);
+            targetStart = Math.max(0, targetEnd - windowItems);
+        }
+
+        // 先取消不再需要的位置，已经显示出来的位置不取消
+        dispatchRuns(prefetchStart, prefetchEnd, true);
+        dispatchRuns(targetStart, targetEnd, false);
+        prefetchStart = targetStart;
+        prefetchEnd = targetEnd;
+    }
+
+    /**
+     * 将[start, end)中需要通知的位置按连续的段回调
+     *
+     * @param cancel 为true时通知旧范围中既不在新范围中也不可见的位置被取消，为false时通知新范围中不在旧范围中的位置
+     */
+    private void dispatchRuns(int start, int end, boolean cancel) {
+        int runStart = -1;
+        for (int position = start; position <= end; position++) {
+            final boolean dispatch = position < end && (cancel
+                    ? !contains(targetStart, targetEnd, position) && !contains(visibleStart, visibleEnd, position)
+                    : !contains(prefetchStart, prefetchEnd, position));
+            if (dispatch) {
+                if (runStart < 0) {
+                    runStart = position;
+                }
+            } else if (runStart >= 0) {
+                if (cancel) {
+                    listener.onCancelPrefetch(runStart, position - runStart);
+                } else {
+                    listener.onPrefetch(runStart, position - runStart);
+                }
+                runStart = -1;
+            }
+        }
+    }
+
+    private static boolean contains(int start, int end, int position) {
+        return position >= start && position < end;
+    }
+}
@@ -4,9 +4,13 @@ import android.annotation.SuppressLint;
 import android.content.Context;
 import android.content.res.TypedArray;
 import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
 import android.graphics.Rect;
+import android.graphics.drawable.ColorDrawable;
 import android.graphics.drawable.Drawable;
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 import android.support.v4.view.ViewCompat;
 import android.support.v7.widget.LinearLayoutManager;
 import android.support.v7.widget.RecyclerView;
@@ -14,27 +18,114 @@ import android.view.View;
 import android.widget.LinearLayout;
 
 import com.shyky.library.adapter.HeaderAndFooterWrapperAdapter;
+import com.shyky.library.adapter.NotificationBatchingAdapter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
 
 /**
  * 实现两个item之间显示一条分隔线，并且可以指定分隔线显示起始位置和结束位置的ItemDecoration
+ * <p>可以通过{@link #addRule(int, int, Drawable, int)}按item的view type和下一个item的view type指定不同的分隔线，
+ * 例如header和item之间不显示分隔线，两组item之间显示更粗的分隔线。规则在第一次使用时被编译为一个按view type下标访问的表，
+ * 布局和绘制时每个item只需要查表，不会分配内存。默认header view和footer view后面不显示分隔线</p>
+ * <p>分隔线为纯色（{@link ColorDrawable}）时，所有分隔线的坐标会先收集到一个数组中，
+ * 再通过一次{@link Canvas#drawLines(float[], int, int, Paint)}绘制。
+ * 完全在可见区域之外的分隔线，以及与上一条分隔线位置相同的分隔线（例如网格中同一行的item）不会被绘制</p>
  *
  * @author Shyky
- * @version 1.1
+ * @version 1.3
  * @date 2017/3/6
  * @since 1.0
  */
 public class DividerItemDecoration extends RecyclerView.ItemDecoration {
     public static final int HORIZONTAL = LinearLayout.HORIZONTAL;
     public static final int VERTICAL = LinearLayout.VERTICAL;
+    /**
+     * Matches any view type in a rule.
+     */
+    public static final int ANY_TYPE = Integer.MIN_VALUE;
+    /**
+     * The view type of the header views of a {@link HeaderAndFooterWrapperAdapter} in a rule.
+     */
+    public static final int HEADER_TYPE = Integer.MIN_VALUE + 1;
+    /**
+     * The view type of the footer views of a {@link HeaderAndFooterWrapperAdapter} in a rule.
+     */
+    public static final int FOOTER_TYPE = Integer.MIN_VALUE + 2;
+    /**
+     * The next view type of the last item in a rule.
+     */
+    public static final int NO_NEXT_TYPE = Integer.MIN_VALUE + 3;
     private static final int[] ATTRS = new int[]{android.R.attr.listDivider};
+    private static final int NO_STYLE = -1;
+    private static final int DEFAULT_STYLE = 0;
     private Drawable mDivider;
     /**
      * Current orientation. Either {@link #HORIZONTAL} or {@link #VERTICAL}.
      */
     private int mOrientation;
     private final Rect mBounds = new Rect();
+    /**
+     * Dividers are only shown after the items from fromItemPosition (inclusive) to
+     * toItemPosition (exclusive, -1 for the end of the list).
+     */
     private int fromItemPosition;
     private int toItemPosition;
+    /**
+     * The thickness set with {@link #setDividerSize(int)}, or -1 to use the intrinsic size of the drawable.
+     */
+    private int mDividerSize = -1;
+    /**
+     * Draws solid color dividers as lines as thick as the divider.
+     */
+    private final Paint mPaint = new Paint();
+    private final ArrayList<Rule> mRules = new ArrayList<>();
+    /**
+     * The compiled rules: the sorted view types mentioned by the rules, and the style of each
+     * pair of view types, indexed by viewTypeIndex * (length + 1) + nextViewTypeIndex where
+     * the extra index stands for all other view types.
+     */
+    private boolean mRulesCompiled;
+    private int[] mRuleTypes;
+    private int[] mStyleTable;
+    /**
+     * The divider and thickness of each style, {@link #DEFAULT_STYLE} is the default divider.
+     * Each style collects the points of its solid color dividers separately in the current frame.
+     */
+    private Drawable[] mStyleDrawables;
+    private int[] mStyleSizes;
+    private float[][] mStyleLines;
+    private int[] mStyleLineCounts;
+    private int mDrawnCount;
+    private int mSkippedCount;
+    private OnDrawListener mOnDrawListener;
+
+    private static final class Rule {
+        final int viewType;
+        final int nextViewType;
+        final Drawable divider;
+        final int size;
+
+        Rule(int viewType, int nextViewType, Drawable divider, int size) {
+            this.viewType = viewType;
+            this.nextViewType = nextViewType;
+            this.divider = divider;
+            this.size = size;
+        }
+    }
+
+    /**
+     * Interface definition for a callback to be invoked after the dividers were drawn.
+     */
+    public interface OnDrawListener {
+        /**
+         * @param drawnCount    The number of dividers drawn.
+         * @param skippedCount  The number of dividers skipped because they were not visible or
+         *                      overlapped the previous one.
+         * @param drawTimeNanos The time {@link #onDraw(Canvas, RecyclerView, RecyclerView.State)} took.
+         */
+        void onDividersDrawn(int drawnCount, int skippedCount, long drawTimeNanos);
+    }
 
     /**
      * Creates a divider {@link RecyclerView.ItemDecoration} that can be used with a
@@ -51,8 +142,9 @@ public class DividerItemDecoration extends RecyclerView.ItemDecoration {
      * Creates a divider {@link RecyclerView.ItemDecoration} that can be used with a
      * {@link LinearLayoutManager}.
      *
-     * @param context     Current context, it will be used to access resources.
-     * @param orientation Divider orientation. Should be {@link #HORIZONTAL} or {@link #VERTICAL}.
+     * @param context          Current context, it will be used to access resources.
+     * @param orientation      Divider orientation. Should be {@link #HORIZONTAL} or {@link #VERTICAL}.
+     * @param fromItemPosition The adapter position of the first item followed by a divider.
      */
     public DividerItemDecoration(Context context, int orientation, int fromItemPosition) {
         this(context, orientation, fromItemPosition, -1);
@@ -62,16 +154,21 @@ public class DividerItemDecoration extends RecyclerView.ItemDecoration {
      * Creates a divider {@link RecyclerView.ItemDecoration} that can be used with a
      * {@link LinearLayoutManager}.
      *
-     * @param context     Current context, it will be used to access resources.
-     * @param orientation Divider orientation. Should be {@link #HORIZONTAL} or {@link #VERTICAL}.
+     * @param context          Current context, it will be used to access resources.
+     * @param orientation      Divider orientation. Should be {@link #HORIZONTAL} or {@link #VERTICAL}.
+     * @param fromItemPosition The adapter position of the first item followed by a divider.
+     * @param toItemPosition   The adapter position after the last item followed by a divider,
+     *                         or -1 for the end of the list.
      */
     public DividerItemDecoration(Context context, int orientation, int fromItemPosition, int toItemPosition) {
         final TypedArray typedArray = context.obtainStyledAttributes(ATTRS);
         mDivider = typedArray.getDrawable(0);
         typedArray.recycle();
         setOrientation(orientation);
+        mPaint.setStyle(Paint.Style.STROKE);
+        mPaint.setStrokeCap(Paint.Cap.BUTT);
         this.fromItemPosition = fromItemPosition;
-        this.fromItemPosition = toItemPosition;
+        this.toItemPosition = toItemPosition;
     }
 
     /**
@@ -98,6 +195,198 @@ public class DividerItemDecoration extends RecyclerView.ItemDecoration {
             throw new IllegalArgumentException("Drawable cannot be null.");
         }
         mDivider = drawable;
+        mRulesCompiled = false;
+    }
+
+    /**
+     * Sets the thickness of the divider, overriding the intrinsic size of the drawable. This is
+     * required for drawables without an intrinsic size such as {@link ColorDrawable}.
+     *
+     * @param size The thickness in pixels, or -1 to use the intrinsic size.
+     */
+    public void setDividerSize(int size) {
+        mDividerSize = size;
+        mRulesCompiled = false;
+    }
+
+    /**
+     * Adds a rule that decides the divider shown after an item of the specified view type when
+     * it is followed by an item of the specified next view type. A rule naming both view types
+     * takes precedence over one naming only the view type, which takes precedence over one naming
+     * only the next view type. Among equally specific rules the last one added wins.
+     * <p>
+     * Call {@link RecyclerView#invalidateItemDecorations()} when rules are added after this
+     * decoration was added to a RecyclerView.
+     *
+     * @param viewType     The view type of the item, {@link #HEADER_TYPE}, {@link #FOOTER_TYPE} or
+     *                     {@link #ANY_TYPE}.
+     * @param nextViewType The view type of the next item, {@link #HEADER_TYPE},
+     *                     {@link #FOOTER_TYPE}, {@link #NO_NEXT_TYPE} or {@link #ANY_TYPE}.
+     * @param divider      The divider to show, or null to show no divider.
+     * @param size         The thickness of the divider, or -1 to use its intrinsic size.
+     */
+    public void addRule(int viewType, int nextViewType, @Nullable Drawable divider, int size) {
+        mRules.add(new Rule(viewType, nextViewType, divider, size));
+        mRulesCompiled = false;
+    }
+
+    /**
+     * Adds a rule that shows no divider after an item of the specified view type when it is
+     * followed by an item of the specified next view type.
+     *
+     * @see #addRule(int, int, Drawable, int)
+     */
+    public void addNoDividerRule(int viewType, int nextViewType) {
+        addRule(viewType, nextViewType, null, -1);
+    }
+
+    /**
+     * Removes all rules added with {@link #addRule(int, int, Drawable, int)}.
+     */
+    public void clearRules() {
+        mRules.clear();
+        mRulesCompiled = false;
+    }
+
+    /**
+     * Sets a listener that is told how many dividers were drawn and how long it took.
+     *
+     * @param listener The listener, or null to stop measuring.
+     */
+    public void setOnDrawListener(OnDrawListener listener) {
+        mOnDrawListener = listener;
+    }
+
+    private int getDividerSize(int style) {
+        if (mStyleSizes[style] >= 0) {
+            return mStyleSizes[style];
+        }
+        final Drawable divider = mStyleDrawables[style];
+        return Math.max(0, mOrientation == VERTICAL ? divider.getIntrinsicHeight() : divider.getIntrinsicWidth());
+    }
+
+    /**
+     * Compiles the rules into {@link #mStyleTable} if they changed since the last time.
+     */
+    private void compileRules() {
+        if (mRulesCompiled) {
+            return;
+        }
+        final int ruleCount = mRules.size();
+        // Every rule gets its own style, no divider is NO_STYLE
+        mStyleDrawables = new Drawable[ruleCount + 1];
+        mStyleSizes = new int[ruleCount + 1];
+        mStyleLines = new float[ruleCount + 1][];
+        mStyleLineCounts = new int[ruleCount + 1];
+        mStyleDrawables[DEFAULT_STYLE] = mDivider;
+        mStyleSizes[DEFAULT_STYLE] = mDividerSize;
+
+        final int[] types = new int[ruleCount * 2 + 2];
+        int typeCount = 0;
+        types[typeCount++] = HEADER_TYPE;
+        types[typeCount++] = FOOTER_TYPE;
+        for (int i = 0; i < ruleCount; i++) {
+            final Rule rule = mRules.get(i);
+            mStyleDrawables[i + 1] = rule.divider;
+            mStyleSizes[i + 1] = rule.size;
+            if (rule.viewType != ANY_TYPE) {
+                types[typeCount++] = rule.viewType;
+            }
+            if (rule.nextViewType != ANY_TYPE) {
+                types[typeCount++] = rule.nextViewType;
+            }
+        }
+        Arrays.sort(types, 0, typeCount);
+        int distinctCount = 0;
+        for (int i = 0; i < typeCount; i++) {
+            if (distinctCount == 0 || types[distinctCount - 1] != types[i]) {
+                types[distinctCount++] = types[i];
+            }
+        }
+        mRuleTypes = Arrays.copyOf(types, distinctCount);
+
+        final int dimension = distinctCount + 1;
+        mStyleTable = new int[dimension * dimension];
+        for (int row = 0; row < dimension; row++) {
+            for (int column = 0; column < dimension; column++) {
+                // The last index stands for the view types no rule names, only ANY_TYPE matches them
+                final int viewType = row < distinctCount ? mRuleTypes[row] : ANY_TYPE;
+                final int nextViewType = column < distinctCount ? mRuleTypes[column] : ANY_TYPE;
+                mStyleTable[row * dimension + column] = resolveStyle(viewType, nextViewType);
+            }
+        }
+        mRulesCompiled = true;
+    }
+
+    private int resolveStyle(int viewType, int nextViewType) {
+        int style = viewType == HEADER_TYPE || viewType == FOOTER_TYPE ? NO_STYLE : DEFAULT_STYLE;
+        int bestScore = -1;
+        for (int i = 0; i < mRules.size(); i++) {
+            final Rule rule = mRules.get(i);
+            final boolean typeMatches = rule.viewType == ANY_TYPE || rule.viewType == viewType;
+            final boolean nextTypeMatches = rule.nextViewType == ANY_TYPE || rule.nextViewType == nextViewType;
+            if (!typeMatches || !nextTypeMatches) {
+                continue;
+            }
+            final int score = (rule.viewType != ANY_TYPE ? 2 : 0) + (rule.nextViewType != ANY_TYPE ? 1 : 0);
+            if (score >= bestScore) {
+                bestScore = score;
+                style = rule.divider == null ? NO_STYLE : i + 1;
+            }
+        }
+        return style;
+    }
+
+    /**
+     * Looks up the style of the divider shown after the item at the specified adapter position.
+     */
+    private int getStyle(RecyclerView.Adapter adapter, int position) {
+        final int itemCount = adapter.getItemCount();
+        if (position < fromItemPosition || position >= itemCount
+                || (toItemPosition != -1 && position >= toItemPosition)) {
+            return NO_STYLE;
+        }
+        final int viewType = getViewType(adapter, position);
+        final int nextViewType = position + 1 < itemCount ? getViewType(adapter, position + 1) : NO_NEXT_TYPE;
+        final int dimension = mRuleTypes.length + 1;
+        return mStyleTable[getTypeIndex(viewType) * dimension + getTypeIndex(nextViewType)];
+    }
+
+    private int getTypeIndex(int viewType) {
+        final int index = Arrays.binarySearch(mRuleTypes, viewType);
+        return index >= 0 ? index : mRuleTypes.length;
+    }
+
+    private static int getViewType(RecyclerView.Adapter adapter, int position) {
+        if (adapter instanceof HeaderAndFooterWrapperAdapter) {
+            final HeaderAndFooterWrapperAdapter wrapperAdapter = (HeaderAndFooterWrapperAdapter) adapter;
+            if (position < wrapperAdapter.getHeaderCount()) {
+                return HEADER_TYPE;
+            }
+            if (position >= wrapperAdapter.getItemCount() - wrapperAdapter.getFooterCount()) {
+                return FOOTER_TYPE;
+            }
+        }
+        return adapter.getItemViewType(position);
+    }
+
+    private static RecyclerView.Adapter getAdapter(RecyclerView parent) {
+        RecyclerView.Adapter adapter = parent.getAdapter();
+        if (adapter instanceof NotificationBatchingAdapter) {
+            adapter = ((NotificationBatchingAdapter) adapter).getWrappedAdapter();
+        }
+        if (adapter instanceof MetricsAdapter) {
+            adapter = ((MetricsAdapter) adapter).getWrappedAdapter();
+        }
+        return adapter;
+    }
+
+    /**
+     * Returns the adapter position of a child, or its last known position while it is being removed.
+     */
+    private static int getChildPosition(RecyclerView parent, View child) {
+        final int position = parent.getChildAdapterPosition(child);
+        return position != RecyclerView.NO_POSITION ? position : parent.getChildLayoutPosition(child);
     }
 
     public void setFromItemPosition(int fromItemPosition) {
@@ -110,80 +399,179 @@ public class DividerItemDecoration extends RecyclerView.ItemDecoration {
 
     @Override
     public void onDraw(Canvas c, RecyclerView parent, RecyclerView.State state) {
-        if (parent.getLayoutManager() == null) {
+        final RecyclerView.Adapter adapter = getAdapter(parent);
+        if (parent.getLayoutManager() == null || adapter == null) {
             return;
         }
-        final int childCount = parent.getChildCount();
-        final RecyclerView.Adapter adapter = parent.getAdapter();
-        if (adapter instanceof HeaderAndFooterWrapperAdapter) {
-            fromItemPosition = ((HeaderAndFooterWrapperAdapter) adapter).getHeaderCount();
-            toItemPosition = ((HeaderAndFooterWrapperAdapter) adapter).getFooterCount();
-        }
-        toItemPosition = toItemPosition == -1 ? childCount : childCount - toItemPosition;
-
+        final long startTime = mOnDrawListener != null ? System.nanoTime() : 0;
+        compileRules();
+        mDrawnCount = 0;
+        mSkippedCount = 0;
         if (mOrientation == VERTICAL) {
-            drawVertical(c, parent);
+            drawVertical(c, parent, adapter);
         } else {
-            drawHorizontal(c, parent);
+            drawHorizontal(c, parent, adapter);
+        }
+        if (mOnDrawListener != null) {
+            mOnDrawListener.onDividersDrawn(mDrawnCount, mSkippedCount, System.nanoTime() - startTime);
         }
     }
 
     @SuppressLint("NewApi")
-    private void drawVertical(Canvas canvas, RecyclerView parent) {
+    private void drawVertical(Canvas canvas, RecyclerView parent, RecyclerView.Adapter adapter) {
         canvas.save();
         final int left;
         final int right;
+        final int clipTop;
+        final int clipBottom;
         if (parent.getClipToPadding()) {
             left = parent.getPaddingLeft();
             right = parent.getWidth() - parent.getPaddingRight();
-            canvas.clipRect(left, parent.getPaddingTop(), right, parent.getHeight() - parent.getPaddingBottom());
+            clipTop = parent.getPaddingTop();
+            clipBottom = parent.getHeight() - parent.getPaddingBottom();
+            canvas.clipRect(left, clipTop, right, clipBottom);
         } else {
             left = 0;
             right = parent.getWidth();
+            clipTop = 0;
+            clipBottom = parent.getHeight();
         }
-        for (int i = fromItemPosition; i < toItemPosition; i++) {
+        final int childCount = parent.getChildCount();
+        int previousBottom = Integer.MIN_VALUE;
+        for (int i = 0; i < childCount; i++) {
             final View child = parent.getChildAt(i);
+            final int style = getStyle(adapter, getChildPosition(parent, child));
+            final int size = style == NO_STYLE ? 0 : getDividerSize(style);
+            if (size == 0) {
+                continue;
+            }
             parent.getDecoratedBoundsWithMargins(child, mBounds);
             final int bottom = mBounds.bottom + Math.round(ViewCompat.getTranslationY(child));
-            final int top = bottom - mDivider.getIntrinsicHeight();
-            mDivider.setBounds(left, top, right, bottom);
-            mDivider.draw(canvas);
+            final int top = bottom - size;
+            if (bottom <= clipTop || top >= clipBottom || bottom == previousBottom) {
+                mSkippedCount++;
+                continue;
+            }
+            previousBottom = bottom;
+            drawDivider(canvas, style, left, top, right, bottom);
         }
+        flushLines(canvas);
         canvas.restore();
     }
 
     @SuppressLint("NewApi")
-    private void drawHorizontal(Canvas canvas, RecyclerView parent) {
+    private void drawHorizontal(Canvas canvas, RecyclerView parent, RecyclerView.Adapter adapter) {
         canvas.save();
         final int top;
         final int bottom;
+        final int clipLeft;
+        final int clipRight;
         if (parent.getClipToPadding()) {
             top = parent.getPaddingTop();
             bottom = parent.getHeight() - parent.getPaddingBottom();
-            canvas.clipRect(parent.getPaddingLeft(), top,
-                    parent.getWidth() - parent.getPaddingRight(), bottom);
+            clipLeft = parent.getPaddingLeft();
+            clipRight = parent.getWidth() - parent.getPaddingRight();
+            canvas.clipRect(clipLeft, top, clipRight, bottom);
         } else {
             top = 0;
             bottom = parent.getHeight();
+            clipLeft = 0;
+            clipRight = parent.getWidth();
         }
 
-        for (int i = fromItemPosition; i < toItemPosition; i++) {
+        final int childCount = parent.getChildCount();
+        int previousRight = Integer.MIN_VALUE;
+        for (int i = 0; i < childCount; i++) {
             final View child = parent.getChildAt(i);
+            final int style = getStyle(adapter, getChildPosition(parent, child));
+            final int size = style == NO_STYLE ? 0 : getDividerSize(style);
+            if (size == 0) {
+                continue;
+            }
             parent.getLayoutManager().getDecoratedBoundsWithMargins(child, mBounds);
             final int right = mBounds.right + Math.round(ViewCompat.getTranslationX(child));
-            final int left = right - mDivider.getIntrinsicWidth();
-            mDivider.setBounds(left, top, right, bottom);
-            mDivider.draw(canvas);
+            final int left = right - size;
+            if (right <= clipLeft || left >= clipRight || right == previousRight) {
+                mSkippedCount++;
+                continue;
+            }
+            previousRight = right;
+            drawDivider(canvas, style, left, top, right, bottom);
         }
+        flushLines(canvas);
         canvas.restore();
     }
 
+    /**
+     * Draws a divider, or only collects it when the divider is a solid color.
+     */
+    private void drawDivider(Canvas canvas, int style, int left, int top, int right, int bottom) {
+        mDrawnCount++;
+        final Drawable divider = mStyleDrawables[style];
+        if (!(divider instanceof ColorDrawable)) {
+            divider.setBounds(left, top, right, bottom);
+            divider.draw(canvas);
+            return;
+        }
+        float[] points = mStyleLines[style];
+        final int offset = mStyleLineCounts[style] * 4;
+        if (points == null || offset == points.length) {
+            final float[] newPoints = new float[Math.max(64, offset * 2)];
+            if (points != null) {
+                System.arraycopy(points, 0, newPoints, 0, offset);
+            }
+            points = mStyleLines[style] = newPoints;
+        }
+        // A line along the center of the divider, as thick as the divider
+        if (mOrientation == VERTICAL) {
+            final float y = (top + bottom) / 2f;
+            points[offset] = left;
+            points[offset + 1] = y;
+            points[offset + 2] = right;
+            points[offset + 3] = y;
+        } else {
+            final float x = (left + right) / 2f;
+            points[offset] = x;
+            points[offset + 1] = top;
+            points[offset + 2] = x;
+            points[offset + 3] = bottom;
+        }
+        mStyleLineCounts[style]++;
+    }
+
+    /**
+     * Draws the collected solid color dividers with a single call per style.
+     */
+    private void flushLines(Canvas canvas) {
+        for (int style = 0; style < mStyleLineCounts.length; style++) {
+            final int lineCount = mStyleLineCounts[style];
+            if (lineCount == 0) {
+                continue;
+            }
+            final int color = ((ColorDrawable) mStyleDrawables[style]).getColor();
+            if (Color.alpha(color) != 0) {
+                mPaint.setColor(color);
+                mPaint.setStrokeWidth(getDividerSize(style));
+                canvas.drawLines(mStyleLines[style], 0, lineCount * 4, mPaint);
+            }
+            mStyleLineCounts[style] = 0;
+        }
+    }
+
     @Override
     public void getItemOffsets(Rect outRect, View view, RecyclerView parent, RecyclerView.State state) {
+        final RecyclerView.Adapter adapter = getAdapter(parent);
+        if (adapter == null) {
+            outRect.setEmpty();
+            return;
+        }
+        compileRules();
+        final int style = getStyle(adapter, getChildPosition(parent, view));
+        final int size = style == NO_STYLE ? 0 : getDividerSize(style);
         if (mOrientation == VERTICAL) {
-            outRect.set(0, 0, 0, mDivider.getIntrinsicHeight());
+            outRect.set(0, 0, 0, size);
         } else {
-            outRect.set(0, 0, mDivider.getIntrinsicWidth(), 0);
+            outRect.set(0, 0, size, 0);
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,130 @@
+package com.shyky.library.view.widget;
+
+import android.os.SystemClock;
+import android.support.annotation.NonNull;
+import android.support.v4.view.GestureDetectorCompat;
+import android.support.v4.view.ViewCompat;
+import android.support.v7.widget.RecyclerView;
+import android.view.GestureDetector;
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.ViewGroup;
+
+/**
+ * 通过一个{@link RecyclerView.OnItemTouchListener}分发item的点击和长按事件
+ * <p>只观察RecyclerView收到的触摸事件而不拦截，识别出点击或长按后找到触摸点下的子view，
+ * 交给{@link SmartRecyclerView}转换为不包含header的位置后回调。不需要为每个item设置监听器，
+ * 绑定和显示item时不会分配任何对象。按下时列表正在滑动的触摸只用于停止滑动，不算作点击。
+ * 与AdapterView一样，触摸点下有item中可以点击的view（例如按钮）时由它自己处理，不再回调item的点击和长按</p>
+ *
+ * @author Shyky
+ * @version 1.0
+ * @date 2026/10/18
+ * @since 1.3
+ */
+class ItemClickDispatcher extends GestureDetector.SimpleOnGestureListener implements RecyclerView.OnItemTouchListener {
+    private final SmartRecyclerView recyclerView;
+    private final GestureDetectorCompat gestureDetector;
+    /**
+     * 按下时列表是否正在滑动
+     */
+    private boolean downWhileScrolling;
+
+    ItemClickDispatcher(@NonNull SmartRecyclerView recyclerView) {
+        this.recyclerView = recyclerView;
+        gestureDetector = new GestureDetectorCompat(recyclerView.getContext(), this);
+    }
+
+    /**
+     * 设置是否识别长按，没有长按监听器时关闭，此时按住之后再抬起也算作点击
+     */
+    void setLongClickEnabled(boolean enabled) {
+        gestureDetector.setIsLongpressEnabled(enabled);
+    }
+
+    @Override
+    public boolean onInterceptTouchEvent(RecyclerView rv, MotionEvent e) {
+        gestureDetector.onTouchEvent(e);
+        return false;
+    }
+
+    @Override
+    public void onTouchEvent(RecyclerView rv, MotionEvent e) {
+        // onInterceptTouchEvent()总是返回false，不会收到事件
+    }
+
+    @Override
+    public void onRequestDisallowInterceptTouchEvent(boolean disallowIntercept) {
+        if (disallowIntercept) {
+            // 子view接管了这次触摸，之后的事件不会再经过这里，取消等待中的点击和长按
+            final long now = SystemClock.uptimeMillis();
+            final MotionEvent cancel = MotionEvent.obtain(now, now, MotionEvent.ACTION_CANCEL, 0, 0, 0);
+            gestureDetector.onTouchEvent(cancel);
+            cancel.recycle();
+        }
+    }
+
+    @Override
+    public boolean onDown(MotionEvent e) {
+        downWhileScrolling = recyclerView.getScrollState() != RecyclerView.SCROLL_STATE_IDLE;
+        return true;
+    }
+
+    @Override
+    public boolean onSingleTapUp(MotionEvent e) {
+        final View child = findChild(e);
+        return child != null && recyclerView.dispatchItemClick(child);
+    }
+
+    @Override
+    public void onLongPress(MotionEvent e) {
+        final View child = findChild(e);
+        if (child != null) {
+            recyclerView.dispatchItemLongClick(child);
+        }
+    }
+
+    private View findChild(MotionEvent e) {
+        if (downWhileScrolling || recyclerView.getScrollState() != RecyclerView.SCROLL_STATE_IDLE) {
+            return null;
+        }
+        final View child = recyclerView.findChildViewUnder(e.getX(), e.getY());
+        if (child instanceof ViewGroup && hasClickableViewUnder((ViewGroup) child,
+                e.getX() - child.getLeft() - ViewCompat.getTranslationX(child),
+                e.getY() - child.getTop() - ViewCompat.getTranslationY(child))) {
+            return null;
+        }
+        return child;
+    }
+
+    /**
+     * 判断坐标下最上层的子view中是否有可以点击或长按的view，不包括parent本身。这样的view即使不可用也会消费触摸事件
+     *
+     * @param x parent坐标系中的x坐标
+     * @param y parent坐标系中的y坐标
+     */
+    private static boolean hasClickableViewUnder(ViewGroup parent, float x, float y) {
+        final float scrolledX = x + parent.getScrollX();
+        final float scrolledY = y + parent.getScrollY();
+        for (int i = parent.getChildCount() - 1; i >= 0; i--) {
+            final View child = parent.getChildAt(i);
+            if (child.getVisibility() != View.VISIBLE) {
+                continue;
+            }
+            final float left = child.getLeft() + ViewCompat.getTranslationX(child);
+            final float top = child.getTop() + ViewCompat.getTranslationY(child);
+            if (scrolledX < left || scrolledX >= left + child.getWidth()
+                    || scrolledY < top || scrolledY >= top + child.getHeight()) {
+                continue;
+            }
+            if (child.isClickable() || child.isLongClickable()) {
+                return true;
+            }
+            // 不消费事件的view会把事件交给下面的兄弟view
+            if (child instanceof ViewGroup && hasClickableViewUnder((ViewGroup) child, scrolledX - left, scrolledY - top)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,91 @@
+package com.shyky.library.view.widget;
+
+import android.content.Context;
+import android.support.annotation.NonNull;
+import android.support.v7.widget.RecyclerView;
+import android.view.ViewGroup;
+
+import com.shyky.library.adapter.WrapperAdapter;
+
+import java.util.List;
+
+/**
+ * 统计创建和绑定ViewHolder耗时的包装Adapter
+ * <p>所有方法都直接交给被包装的Adapter处理，创建和绑定的耗时按view type记录到{@link ScrollMetrics}中。
+ * 预先创建ViewHolder时创建方法可能在后台线程中调用</p>
+ *
+ * @author Shyky
+ * @version 1.0
+ * @date 2026/10/18
+ * @since 1.3
+ */
+class MetricsAdapter extends WrapperAdapter {
+    private final ScrollMetrics metrics;
+
+    MetricsAdapter(Context context, @NonNull RecyclerView.Adapter adapter, @NonNull ScrollMetrics metrics) {
+        super(context, adapter);
+        this.metrics = metrics;
+    }
+
+    @Override
+    public RecyclerView.ViewHolder onCreateViewHolder(ViewGroup parent, int viewType) {
+        final long start = System.nanoTime();
+        final RecyclerView.ViewHolder holder = adapter.onCreateViewHolder(parent, viewType);
+        metrics.record(ScrollMetrics.OP_CREATE, viewType, System.nanoTime() - start);
+        return holder;
+    }
+
+    @Override
+    public void onBindViewHolder(RecyclerView.ViewHolder holder, int position) {
+        final long start = System.nanoTime();
+        adapter.onBindViewHolder(holder, position);
+        metrics.record(ScrollMetrics.OP_BIND, holder.getItemViewType(), System.nanoTime() - start);
+    }
+
+    @Override
+    public void onBindViewHolder(RecyclerView.ViewHolder holder, int position, List payloads) {
+        final long start = System.nanoTime();
+        adapter.onBindViewHolder(holder, position, payloads);
+        metrics.record(ScrollMetrics.OP_BIND, holder.getItemViewType(), System.nanoTime() - start);
+    }
+
+    @Override
+    public int getItemViewType(int position) {
+        return adapter.getItemViewType(position);
+    }
+
+    @Override
+    public int getItemCount() {
+        return adapter.getItemCount();
+    }
+
+    @Override
+    public void onViewRecycled(RecyclerView.ViewHolder holder) {
+        adapter.onViewRecycled(holder);
+    }
+
+    @Override
+    public boolean onFailedToRecycleView(RecyclerView.ViewHolder holder) {
+        return adapter.onFailedToRecycleView(holder);
+    }
+
+    @Override
+    public void onViewAttachedToWindow(RecyclerView.ViewHolder holder) {
+        adapter.onViewAttachedToWindow(holder);
+    }
+
+    @Override
+    public void onViewDetachedFromWindow(RecyclerView.ViewHolder holder) {
+        adapter.onViewDetachedFromWindow(holder);
+    }
+
+    @Override
+    public void onAttachedToRecyclerView(RecyclerView recyclerView) {
+        adapter.onAttachedToRecyclerView(recyclerView);
+    }
+
+    @Override
+    public void onDetachedFromRecyclerView(RecyclerView recyclerView) {
+        adapter.onDetachedFromRecyclerView(recyclerView);
+    }
+}
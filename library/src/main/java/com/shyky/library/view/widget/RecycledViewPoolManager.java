@@ -0,0 +1,191 @@
+package com.shyky.library.view.widget;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.res.Configuration;
+import android.support.annotation.MainThread;
+import android.support.annotation.NonNull;
+
+import java.util.ArrayList;
+
+/**
+ * 管理进程内所有{@link SharedRecycledViewPool}的内存占用
+ * <p>使用相同Context的SmartRecyclerView共用同一个{@link SharedRecycledViewPool}，所有pool中缓存的ViewHolder的估算内存总和不超过
+ * {@link #setMaxBytes(int)}指定的大小，超出时淘汰最久没有使用过的view type的ViewHolder。
+ * 系统内存不足时（{@link ComponentCallbacks2#onTrimMemory(int)}）自动缩小，配置变化时清空，因为缓存的view是按照旧的配置创建的</p>
+ * <p>此类只能在主线程中使用</p>
+ *
+ * @author Shyky
+ * @version 1.0
+ * @date 2026/10/18
+ * @since 1.3
+ */
+public final class RecycledViewPoolManager implements ComponentCallbacks2 {
+    /**
+     * 每个view type默认最多缓存的ViewHolder数量，比RecycledViewPool默认的5个多是因为由多个RecyclerView共用
+     */
+    private static final int DEFAULT_MAX_RECYCLED_VIEWS = 10;
+    private static RecycledViewPoolManager sInstance;
+
+    /**
+     * 每个Context对应一个pool，最后一个使用者离开窗口时移除，避免持有已经销毁的Activity
+     */
+    private final ArrayList<SharedRecycledViewPool> pools = new ArrayList<>();
+    private int maxBytes;
+    private int defaultMaxRecycledViews = DEFAULT_MAX_RECYCLED_VIEWS;
+    /**
+     * 所有pool中缓存的ViewHolder的估算内存总和
+     */
+    private int bytes;
+    /**
+     * 每次存取ViewHolder时加一，用于判断哪个view type最久没有使用过
+     */
+    private int clock;
+
+    private RecycledViewPoolManager() {
+        // 默认最多使用最大堆内存的1/32
+        maxBytes = (int) Math.min(Integer.MAX_VALUE, Runtime.getRuntime().maxMemory() / 32);
+    }
+
+    @MainThread
+    public static RecycledViewPoolManager getInstance(@NonNull Context context) {
+        if (sInstance == null) {
+            sInstance = new RecycledViewPoolManager();
+            context.getApplicationContext().registerComponentCallbacks(sInstance);
+        }
+        return sInstance;
+    }
+
+    /**
+     * 获取指定Context对应的pool，没有时创建一个
+     *
+     * @param context RecyclerView的Context
+     * @return pool
+     */
+    @MainThread
+    public SharedRecycledViewPool getPool(@NonNull Context context) {
+        for (SharedRecycledViewPool pool : pools) {
+            if (pool.getContext() == context) {
+                return pool;
+            }
+        }
+        final SharedRecycledViewPool pool = new SharedRecycledViewPool(this, context);
+        pools.add(pool);
+        return pool;
+    }
+
+    /**
+     * 设置所有pool中缓存的ViewHolder最多占用的内存，默认为最大堆内存的1/32
+     *
+     * @param maxBytes 最多占用的字节数
+     */
+    @MainThread
+    public void setMaxBytes(int maxBytes) {
+        this.maxBytes = Math.max(0, maxBytes);
+        trimToSize(this.maxBytes);
+    }
+
+    public int getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * 获取所有pool中缓存的ViewHolder的估算内存总和
+     *
+     * @return 字节数
+     */
+    public int getBytes() {
+        return bytes;
+    }
+
+    /**
+     * 设置每个view type默认最多缓存的ViewHolder数量，只对之后第一次出现的view type有效，默认为10
+     *
+     * @param max 最多缓存的数量
+     */
+    public void setDefaultMaxRecycledViews(int max) {
+        defaultMaxRecycledViews = Math.max(0, max);
+    }
+
+    int getDefaultMaxRecycledViews() {
+        return defaultMaxRecycledViews;
+    }
+
+    int nextClock() {
+        return ++clock;
+    }
+
+    void onBytesChanged(int delta) {
+        bytes += delta;
+        if (delta > 0 && bytes > maxBytes) {
+            trimToSize(maxBytes);
+        }
+    }
+
+    void onPoolAcquired(SharedRecycledViewPool pool) {
+        if (!pools.contains(pool)) {
+            pools.add(pool);
+        }
+    }
+
+    void onPoolReleased(SharedRecycledViewPool pool) {
+        pool.clear();
+        pools.remove(pool);
+    }
+
+    /**
+     * 淘汰最久没有使用过的ViewHolder，直到估算的内存总和不超过指定的大小
+     *
+     * @param size 最多占用的字节数
+     */
+    @MainThread
+    public void trimToSize(int size) {
+        while (bytes > size) {
+            SharedRecycledViewPool oldestPool = null;
+            int oldestType = 0;
+            int oldestClock = Integer.MAX_VALUE;
+            for (SharedRecycledViewPool pool : pools) {
+                final int type = pool.getLeastRecentlyUsedType();
+                if (type != SharedRecycledViewPool.NO_TYPE && pool.getLastUsed(type) < oldestClock) {
+                    oldestPool = pool;
+                    oldestType = type;
+                    oldestClock = pool.getLastUsed(type);
+                }
+            }
+            if (oldestPool == null) {
+                return;
+            }
+            oldestPool.evict(oldestType);
+        }
+    }
+
+    /**
+     * 清空所有pool
+     */
+    @MainThread
+    public void clear() {
+        for (SharedRecycledViewPool pool : pools) {
+            pool.clear();
+        }
+    }
+
+    @Override
+    public void onTrimMemory(int level) {
+        if (level >= TRIM_MEMORY_MODERATE || level == TRIM_MEMORY_RUNNING_CRITICAL) {
+            clear();
+        } else if (level >= TRIM_MEMORY_RUNNING_LOW) {
+            // 包括TRIM_MEMORY_RUNNING_LOW、TRIM_MEMORY_UI_HIDDEN和TRIM_MEMORY_BACKGROUND
+            trimToSize(maxBytes / 2);
+        }
+    }
+
+    @Override
+    public void onLowMemory() {
+        clear();
+    }
+
+    @Override
+    public void onConfigurationChanged(Configuration newConfig) {
+        clear();
+    }
+}
@@ -0,0 +1,340 @@
+package com.shyky.library.view.widget;
+
+import android.support.annotation.NonNull;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * SmartRecyclerView的滑动性能统计
+ * <p>按view type统计创建和绑定ViewHolder的次数和耗时分布，统计ItemDecoration绘制的耗时分布，
+ * 以及每一帧中绑定和创建的次数分布。耗时按2的幂分为{@link #BUCKET_COUNT}个区间，第i个区间（i大于0）包含
+ * [2^(i-1), 2^i)微秒的耗时，第0个区间包含小于1微秒的耗时，最后一个区间包含所有更长的耗时</p>
+ * <p>记录只使用原子操作，不加锁也不分配内存，可以在任意线程中进行。最多分别统计{@value #MAX_VIEW_TYPES}个view type，
+ * 更多的view type合并统计在{@link #OTHER_VIEW_TYPES}中。通过{@link #snapshot()}获取某一时刻的统计结果</p>
+ *
+ * @author Shyky
+ * @version 1.0
+ * @date 2026/10/18
+ * @since 1.3
+ */
+public final class ScrollMetrics {
+    public static final int OP_CREATE = 0;
+    public static final int OP_BIND = 1;
+    private static final int OP_COUNT = 2;
+    public static final int BUCKET_COUNT = 24;
+    public static final int MAX_VIEW_TYPES = 32;
+    /**
+     * 超过{@link #MAX_VIEW_TYPES}个之后的view type在快照中使用的view type
+     */
+    public static final int OTHER_VIEW_TYPES = Integer.MIN_VALUE;
+    /**
+     * 每一帧的次数也按2的幂分区间：0次、1次、2～3次、4～7次……
+     */
+    public static final int FRAME_BUCKET_COUNT = 16;
+
+    private static final int SLOT_EMPTY = 0;
+    private static final int SLOT_CLAIMED = 1;
+    private static final int SLOT_READY = 2;
+    /**
+     * 最后一个slot统计其他所有view type
+     */
+    private static final int OTHER_SLOT = MAX_VIEW_TYPES;
+    private static final int SLOT_COUNT = MAX_VIEW_TYPES + 1;
+
+    private final AtomicIntegerArray slotStates = new AtomicIntegerArray(MAX_VIEW_TYPES);
+    private final AtomicIntegerArray slotViewTypes = new AtomicIntegerArray(MAX_VIEW_TYPES);
+    /**
+     * 按[slot][op]保存的次数和总耗时，以及按[slot][op][bucket]保存的耗时分布
+     */
+    private final AtomicLongArray counts = new AtomicLongArray(SLOT_COUNT * OP_COUNT);
+    private final AtomicLongArray totalNanos = new AtomicLongArray(SLOT_COUNT * OP_COUNT);
+    private final AtomicLongArray buckets = new AtomicLongArray(SLOT_COUNT * OP_COUNT * BUCKET_COUNT);
+    private final AtomicLongArray decorationDrawBuckets = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLongArray decorationDrawStats = new AtomicLongArray(2);
+    /**
+     * 当前帧中的绑定和创建次数，以及已结束的帧的次数分布
+     */
+    private final AtomicInteger frameBinds = new AtomicInteger();
+    private final AtomicInteger frameCreates = new AtomicInteger();
+    private final AtomicLongArray bindsPerFrame = new AtomicLongArray(FRAME_BUCKET_COUNT);
+    private final AtomicLongArray createsPerFrame = new AtomicLongArray(FRAME_BUCKET_COUNT);
+
+    /**
+     * 记录一次创建或绑定ViewHolder
+     *
+     * @param op       {@link #OP_CREATE}或{@link #OP_BIND}
+     * @param viewType ViewHolder的view type
+     * @param nanos    耗时，单位为纳秒
+     */
+    public void record(int op, int viewType, long nanos) {
+        final int index = getSlot(viewType) * OP_COUNT + op;
+        counts.incrementAndGet(index);
+        totalNanos.addAndGet(index, nanos);
+        buckets.incrementAndGet(index * BUCKET_COUNT + getBucket(nanos / 1000, BUCKET_COUNT));
+        if (op == OP_BIND) {
+            frameBinds.incrementAndGet();
+        } else {
+            frameCreates.incrementAndGet();
+        }
+    }
+
+    /**
+     * 记录一次绘制中所有ItemDecoration的onDraw()和onDrawOver()
+     *
+     * @param nanos 耗时，单位为纳秒
+     */
+    public void recordDecorationDraw(long nanos) {
+        decorationDrawStats.incrementAndGet(0);
+        decorationDrawStats.addAndGet(1, nanos);
+        decorationDrawBuckets.incrementAndGet(getBucket(nanos / 1000, BUCKET_COUNT));
+    }
+
+    /**
+     * 结束当前帧，SmartRecyclerView在滑动时每一帧的动画阶段调用，停止时只在布局之后的一帧调用。
+     * 两次调用之间的绑定和创建都属于结束的这一帧
+     */
+    public void onFrame() {
+        bindsPerFrame.incrementAndGet(getBucket(frameBinds.getAndSet(0), FRAME_BUCKET_COUNT));
+        createsPerFrame.incrementAndGet(getBucket(frameCreates.getAndSet(0), FRAME_BUCKET_COUNT));
+    }
+
+    /**
+     * 清空所有统计
+     */
+    public void reset() {
+        for (int i = 0; i < counts.length(); i++) {
+            counts.set(i, 0);
+            totalNanos.set(i, 0);
+        }
+        for (int i = 0; i < buckets.length(); i++) {
+            buckets.set(i, 0);
+        }
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            decorationDrawBuckets.set(i, 0);
+        }
+        decorationDrawStats.set(0, 0);
+        decorationDrawStats.set(1, 0);
+        for (int i = 0; i < FRAME_BUCKET_COUNT; i++) {
+            bindsPerFrame.set(i, 0);
+            createsPerFrame.set(i, 0);
+        }
+        frameBinds.set(0);
+        frameCreates.set(0);
+    }
+
+    /**
+     * 获取当前的统计结果。统计仍在进行时各项之间可能有细微的不一致
+     *
+     * @return 统计结果的快照
+     */
+    @NonNull
+    public Snapshot snapshot() {
+        return new Snapshot(this);
+    }
+
+    /**
+     * 查找或分配view type对应的slot，分配时只使用CAS，竞争时同一个view type可能占用两个slot，快照中会合并
+     */
+    private int getSlot(int viewType) {
+        final int start = (viewType * 0x9E3779B9) >>> 27;
+        for (int i = 0; i < MAX_VIEW_TYPES; i++) {
+            final int slot = (start + i) & (MAX_VIEW_TYPES - 1);
+            final int state = slotStates.get(slot);
+            if (state == SLOT_READY) {
+                if (slotViewTypes.get(slot) == viewType) {
+                    return slot;
+                }
+            } else if (state == SLOT_EMPTY && slotStates.compareAndSet(slot, SLOT_EMPTY, SLOT_CLAIMED)) {
+                slotViewTypes.set(slot, viewType);
+                slotStates.set(slot, SLOT_READY);
+                return slot;
+            }
+        }
+        return OTHER_SLOT;
+    }
+
+    private static int getBucket(long value, int bucketCount) {
+        final int bucket = 64 - Long.numberOfLeadingZeros(value);
+        return bucket < bucketCount ? bucket : bucketCount - 1;
+    }
+
+    /**
+     * 统计结果的快照
+     */
+    public static final class Snapshot {
+        private final int[] viewTypes;
+        private final long[] counts;
+        private final long[] totalNanos;
+        private final long[] buckets;
+        private final long decorationDrawCount;
+        private final long decorationDrawNanos;
+        private final long[] decorationDrawBuckets;
+        private final long[] bindsPerFrame;
+        private final long[] createsPerFrame;
+
+        private Snapshot(ScrollMetrics metrics) {
+            int[] types = new int[SLOT_COUNT];
+            final long[] slotCounts = new long[SLOT_COUNT * OP_COUNT];
+            final long[] slotNanos = new long[SLOT_COUNT * OP_COUNT];
+            final long[] slotBuckets = new long[SLOT_COUNT * OP_COUNT * BUCKET_COUNT];
+            int typeCount = 0;
+            for (int slot = 0; slot < SLOT_COUNT; slot++) {
+                final int viewType;
+                if (slot == OTHER_SLOT) {
+                    viewType = OTHER_VIEW_TYPES;
+                } else if (metrics.slotStates.get(slot) == SLOT_READY) {
+                    viewType = metrics.slotViewTypes.get(slot);
+                } else {
+                    continue;
+                }
+                int index = indexOf(types, typeCount, viewType);
+                if (index < 0) {
+                    index = typeCount++;
+                    types[index] = viewType;
+                }
+                for (int op = 0; op < OP_COUNT; op++) {
+                    final int from = slot * OP_COUNT + op;
+                    final int to = index * OP_COUNT + op;
+                    slotCounts[to] += metrics.counts.get(from);
+                    slotNanos[to] += metrics.totalNanos.get(from);
+                    for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+                        slotBuckets[to * BUCKET_COUNT + bucket] += metrics.buckets.get(from * BUCKET_COUNT + bucket);
+                    }
+                }
+            }
+            viewTypes = Arrays.copyOf(types, typeCount);
+            counts = slotCounts;
+            totalNanos = slotNanos;
+            buckets = slotBuckets;
+            decorationDrawCount = metrics.decorationDrawStats.get(0);
+            decorationDrawNanos = metrics.decorationDrawStats.get(1);
+            decorationDrawBuckets = toArray(metrics.decorationDrawBuckets);
+            bindsPerFrame = toArray(metrics.bindsPerFrame);
+            createsPerFrame = toArray(metrics.createsPerFrame);
+        }
+
+        private static int indexOf(int[] values, int count, int value) {
+            for (int i = 0; i < count; i++) {
+                if (values[i] == value) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private static long[] toArray(AtomicLongArray array) {
+            final long[] values = new long[array.length()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = array.get(i);
+            }
+            return values;
+        }
+
+        /**
+         * @return 有统计数据的view type，包括{@link #OTHER_VIEW_TYPES}
+         */
+        @NonNull
+        public int[] getViewTypes() {
+            return viewTypes.clone();
+        }
+
+        public long getCount(int viewType, int op) {
+            final int index = indexOf(viewTypes, viewTypes.length, viewType);
+            return index < 0 ? 0 : counts[index * OP_COUNT + op];
+        }
+
+        public long getTotalNanos(int viewType, int op) {
+            final int index = indexOf(viewTypes, viewTypes.length, viewType);
+            return index < 0 ? 0 : totalNanos[index * OP_COUNT + op];
+        }
+
+        /**
+         * @return 每个耗时区间中的次数
+         */
+        @NonNull
+        public long[] getHistogram(int viewType, int op) {
+            final int index = indexOf(viewTypes, viewTypes.length, viewType);
+            if (index < 0) {
+                return new long[BUCKET_COUNT];
+            }
+            final int from = (index * OP_COUNT + op) * BUCKET_COUNT;
+            return Arrays.copyOfRange(buckets, from, from + BUCKET_COUNT);
+        }
+
+        /**
+         * 根据耗时分布估算百分位数
+         *
+         * @param percentile 0到100之间的百分位
+         * @return 包含该百分位的区间的上限，单位为微秒，没有数据时返回0
+         */
+        public long getPercentileMicros(int viewType, int op, double percentile) {
+            return percentile(getHistogram(viewType, op), percentile);
+        }
+
+        public long getDecorationDrawCount() {
+            return decorationDrawCount;
+        }
+
+        public long getDecorationDrawNanos() {
+            return decorationDrawNanos;
+        }
+
+        @NonNull
+        public long[] getDecorationDrawHistogram() {
+            return decorationDrawBuckets.clone();
+        }
+
+        public long getDecorationDrawPercentileMicros(double percentile) {
+            return percentile(decorationDrawBuckets, percentile);
+        }
+
+        /**
+         * @return 统计过的帧数
+         */
+        public long getFrameCount() {
+            long frames = 0;
+            for (long count : bindsPerFrame) {
+                frames += count;
+            }
+            return frames;
+        }
+
+        /**
+         * @return 每一帧中绑定次数的分布，区间见{@link #FRAME_BUCKET_COUNT}
+         */
+        @NonNull
+        public long[] getBindsPerFrameHistogram() {
+            return bindsPerFrame.clone();
+        }
+
+        /**
+         * @return 每一帧中创建次数的分布，区间见{@link #FRAME_BUCKET_COUNT}
+         */
+        @NonNull
+        public long[] getCreatesPerFrameHistogram() {
+            return createsPerFrame.clone();
+        }
+
+        private static long percentile(long[] histogram, double percentile) {
+            long total = 0;
+            for (long count : histogram) {
+                total += count;
+            }
+            if (total == 0) {
+                return 0;
+            }
+            final double target = total * percentile / 100;
+            long seen = 0;
+            for (int bucket = 0; bucket < histogram.length; bucket++) {
+                seen += histogram[bucket];
+                if (seen >= target) {
+                    return 1L << bucket;
+                }
+            }
+            return 1L << (histogram.length - 1);
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.shyky.library.view.widget;
+
+import android.content.Context;
+import android.support.annotation.NonNull;
+import android.support.v7.widget.RecyclerView;
+import android.util.SparseIntArray;
+import android.view.View;
+import android.view.ViewGroup;
+
+/**
+ * 由多个RecyclerView共用、受{@link RecycledViewPoolManager}统一限制内存占用的RecycledViewPool
+ * <p>每个view type最多缓存的数量默认由{@link RecycledViewPoolManager#setDefaultMaxRecycledViews(int)}决定，
+ * 每个ViewHolder的内存占用按其view层级中view的数量估算，也可以通过{@link #setEstimatedSize(int, int)}指定。
+ * 共用此pool的Adapter中相同的view type必须可以使用相同的ViewHolder</p>
+ *
+ * @author Shyky
+ * @version 1.0
+ * @date 2026/10/18
+ * @since 1.3
+ */
+public class SharedRecycledViewPool extends RecyclerView.RecycledViewPool {
+    static final int NO_TYPE = Integer.MIN_VALUE;
+    /**
+     * 估算时每个view占用的字节数，包括view本身和它的背景、文字等
+     */
+    private static final int ESTIMATED_VIEW_BYTES = 1024;
+
+    private final RecycledViewPoolManager manager;
+    private final Context context;
+    /**
+     * 每个view type的最大数量、当前数量、每个ViewHolder的估算大小和最后一次存取的时间
+     */
+    private final SparseIntArray maxCounts = new SparseIntArray();
+    private final SparseIntArray counts = new SparseIntArray();
+    private final SparseIntArray sizes = new SparseIntArray();
+    private final SparseIntArray lastUsed = new SparseIntArray();
+    private int userCount;
+
+    SharedRecycledViewPool(@NonNull RecycledViewPoolManager manager, @NonNull Context context) {
+        this.manager = manager;
+        this.context = context;
+    }
+
+    Context getContext() {
+        return context;
+    }
+
+    /**
+     * 指定一个view type的ViewHolder的估算内存占用，代替按view数量估算的结果
+     *
+     * @param viewType view type
+     * @param bytes    每个ViewHolder占用的字节数
+     */
+    public void setEstimatedSize(int viewType, int bytes) {
+        final int count = counts.get(viewType);
+        manager.onBytesChanged(count * (bytes - sizes.get(viewType)));
+        sizes.put(viewType, bytes);
+    }
+
+    @Override
+    public void setMaxRecycledViews(int viewType, int max) {
+        maxCounts.put(viewType, max);
+        super.setMaxRecycledViews(viewType, max);
+        // 父类会丢弃超出的ViewHolder
+        final int count = counts.get(viewType);
+        if (count > max) {
+            counts.put(viewType, max);
+            manager.onBytesChanged((max - count) * sizes.get(viewType));
+        }
+    }
+
+    @Override
+    public RecyclerView.ViewHolder getRecycledView(int viewType) {
+        final RecyclerView.ViewHolder holder = removeRecycledView(viewType);
+        if (holder != null) {
+            lastUsed.put(viewType, manager.nextClock());
+        }
+        return holder;
+    }
+
+    /**
+     * 从父类中取出一个ViewHolder并更新数量和内存占用，不更新最后一次存取的时间
+     */
+    private RecyclerView.ViewHolder removeRecycledView(int viewType) {
+        final RecyclerView.ViewHolder holder = super.getRecycledView(viewType);
+        if (holder != null) {
+            counts.put(viewType, counts.get(viewType) - 1);
+            manager.onBytesChanged(-sizes.get(viewType));
+        }
+        return holder;
+    }
+
+    @Override
+    public void putRecycledView(RecyclerView.ViewHolder scrap) {
+        final int viewType = scrap.getItemViewType();
+        if (maxCounts.indexOfKey(viewType) < 0) {
+            setMaxRecycledViews(viewType, manager.getDefaultMaxRecycledViews());
+        }
+        final int count = counts.get(viewType);
+        if (count >= maxCounts.get(viewType)) {
+            // 与父类一样直接丢弃
+            return;
+        }
+        if (sizes.indexOfKey(viewType) < 0) {
+            sizes.put(viewType, countViews(scrap.itemView) * ESTIMATED_VIEW_BYTES);
+        }
+        super.putRecycledView(scrap);
+        counts.put(viewType, count + 1);
+        lastUsed.put(viewType, manager.nextClock());
+        manager.onBytesChanged(sizes.get(viewType));
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        int bytes = 0;
+        for (int i = 0; i < counts.size(); i++) {
+            bytes += counts.valueAt(i) * sizes.get(counts.keyAt(i));
+        }
+        counts.clear();
+        lastUsed.clear();
+        manager.onBytesChanged(-bytes);
+    }
+
+    /**
+     * 丢弃一个指定view type的ViewHolder，丢弃不算作使用，否则这个view type会变成最近使用过的，下一次会丢弃其他view type
+     */
+    void evict(int viewType) {
+        removeRecycledView(viewType);
+    }
+
+    /**
+     * @return 有缓存的ViewHolder的view type中最久没有使用过的一个，没有时返回{@link #NO_TYPE}
+     */
+    int getLeastRecentlyUsedType() {
+        int oldestType = NO_TYPE;
+        int oldestClock = Integer.MAX_VALUE;
+        for (int i = 0; i < counts.size(); i++) {
+            final int viewType = counts.keyAt(i);
+            if (counts.valueAt(i) > 0 && lastUsed.get(viewType) < oldestClock) {
+                oldestType = viewType;
+                oldestClock = lastUsed.get(viewType);
+            }
+        }
+        return oldestType;
+    }
+
+    int getLastUsed(int viewType) {
+        return lastUsed.get(viewType);
+    }
+
+    /**
+     * 使用此pool的RecyclerView添加到窗口时调用
+     */
+    void acquire() {
+        if (userCount++ == 0) {
+            manager.onPoolAcquired(this);
+        }
+    }
+
+    /**
+     * 使用此pool的RecyclerView离开窗口时调用，没有使用者时清空并从{@link RecycledViewPoolManager}中移除
+     */
+    void release() {
+        if (--userCount == 0) {
+            manager.onPoolReleased(this);
+        }
+    }
+
+    private static int countViews(View view) {
+        int count = 1;
+        if (view instanceof ViewGroup) {
+            final ViewGroup group = (ViewGroup) view;
+            for (int i = 0; i < group.getChildCount(); i++) {
+                count += countViews(group.getChildAt(i));
+            }
+        }
+        return count;
+    }
+}
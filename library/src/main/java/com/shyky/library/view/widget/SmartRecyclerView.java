@@ -2,122 +2,139 @@ package com.shyky.library.view.widget;
 
 import android.content.Context;
 import android.content.res.TypedArray;
+import android.graphics.Canvas;
 import android.graphics.drawable.Drawable;
 import android.support.annotation.LayoutRes;
 import android.support.annotation.Nullable;
+import android.support.v4.view.ViewCompat;
 import android.support.v7.widget.LinearLayoutManager;
 import android.support.v7.widget.RecyclerView;
 import android.util.AttributeSet;
+import android.view.HapticFeedbackConstants;
 import android.view.LayoutInflater;
+import android.view.SoundEffectConstants;
 import android.view.View;
 import android.view.ViewGroup;
 
 import com.shyky.library.R;
 import com.shyky.library.adapter.ArrayAdapter;
+import com.shyky.library.adapter.BackgroundViewHolderFactory;
 import com.shyky.library.adapter.HeaderAndFooterWrapperAdapter;
+import com.shyky.library.adapter.NotificationBatchingAdapter;
 import com.shyky.library.adapter.WrapperAdapter;
 
-import java.lang.reflect.Field;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 /**
  * 自定义实现支持添加多个header view和footer view的RecyclerView
  *
  * @author Shyky
- * @version 1.2
+ * @version 1.3
  * @date 2017/3/2
  * @since 1.0
  */
 public class SmartRecyclerView extends RecyclerView {
-    /**
-     * Listen to changes in the data set
-     */
-    protected InternalAdapterDataObserver dataSetObserver;
     /**
      * The adapter containing the data to be displayed by this view
      */
     protected Adapter internalAdapter;
-    private ArrayList<View> headerViews;
-    private ArrayList<View> footerViews;
-    private final LayoutInflater layoutInflater;
-    private Drawable divider;
-    private int dividerHeight;
     /**
-     * The listener that receives notifications when an item is clicked.
+     * Wraps {@link #internalAdapter} while notification batching is enabled
      */
-    private OnItemClickListener onItemClickListener;
-
-    protected class InternalAdapterDataObserver extends AdapterDataObserver {
-        protected AdapterDataObserver internalDataObserver;
-
-        public InternalAdapterDataObserver() {
-            // 通过反射获取父类观察者对象
-            try {
-                Field field = getDeclaredField(RecyclerView.class, "mObserver");
-                if (field != null) {
-                    internalDataObserver = (AdapterDataObserver) field.get(SmartRecyclerView.this);
-                }
-            } catch (Exception e) {
-                e.printStackTrace();
-            }
-        }
-
-        public Field getDeclaredField(Class clz, String fieldName) {
-            Field field;
-            for (; clz != Object.class; clz = clz.getSuperclass()) {
-                try {
-                    field = clz.getDeclaredField(fieldName);
-                    field.setAccessible(true);
-                    return field;
-                } catch (Exception e) {
-                }
-            }
-            return null;
-        }
-
-        @Override
-        public void onChanged() {
-            if (internalDataObserver != null) {
-                internalDataObserver.onChanged();
-            }
-        }
-
+    private NotificationBatchingAdapter batchingAdapter;
+    private boolean notificationBatchingEnabled;
+    /**
+     * Created the first time view holders are pre-warmed
+     */
+    private ViewHolderPrewarmer viewHolderPrewarmer;
+    /**
+     * The pool shared with other SmartRecyclerViews, or null when this view uses its own pool
+     */
+    private SharedRecycledViewPool sharedRecycledViewPool;
+    /**
+     * Collects create, bind and decoration timings while metrics are enabled
+     */
+    private ScrollMetrics scrollMetrics;
+    private OnScrollMetricsListener onScrollMetricsListener;
+    private long scrollMetricsIntervalMillis;
+    /**
+     * 一次绘制中ItemDecoration.onDraw()的耗时，以及子view绘制结束、开始调用ItemDecoration.onDrawOver()的时间
+     */
+    private long decorationDrawNanos;
+    private long drawOverStartNanos;
+    private boolean decorationsDrawn;
+    private boolean frameTickScheduled;
+    /**
+     * 在每一帧的动画阶段结束上一帧。开启硬件加速后没有ItemDecoration的RecyclerView滑动时不会重新绘制自身，
+     * 所以不能用绘制来区分帧
+     */
+    private final Runnable frameTickRunnable = new Runnable() {
         @Override
-        public void onItemRangeChanged(int positionStart, int itemCount) {
-            if (internalDataObserver != null) {
-                internalDataObserver.onItemRangeChanged(positionStart, itemCount);
+        public void run() {
+            frameTickScheduled = false;
+            if (scrollMetrics != null) {
+                scrollMetrics.onFrame();
+                if (getScrollState() != SCROLL_STATE_IDLE) {
+                    scheduleFrameTick();
+                }
             }
         }
-
+    };
+    private final Runnable reportMetricsRunnable = new Runnable() {
         @Override
-        public void onItemRangeChanged(int positionStart, int itemCount, Object payload) {
-            if (internalDataObserver != null) {
-                internalDataObserver.onItemRangeChanged(positionStart, itemCount, payload);
+        public void run() {
+            if (scrollMetrics != null && onScrollMetricsListener != null) {
+                onScrollMetricsListener.onScrollMetrics(SmartRecyclerView.this, scrollMetrics.snapshot());
+                postDelayed(this, scrollMetricsIntervalMillis);
             }
         }
-
+    };
+    private final Runnable flushNotificationsRunnable = new Runnable() {
         @Override
-        public void onItemRangeInserted(int positionStart, int itemCount) {
-            if (internalDataObserver != null) {
-                internalDataObserver.onItemRangeInserted(positionStart, itemCount);
+        public void run() {
+            if (isComputingLayout()) {
+                ViewCompat.postOnAnimation(SmartRecyclerView.this, this);
+            } else {
+                flushPendingNotifications();
             }
         }
-
+    };
+    private final NotificationBatchingAdapter.Callback batchingCallback = new NotificationBatchingAdapter.Callback() {
         @Override
-        public void onItemRangeRemoved(int positionStart, int itemCount) {
-            if (internalDataObserver != null) {
-                internalDataObserver.onItemRangeRemoved(positionStart, itemCount);
+        public void onNotificationPending(NotificationBatchingAdapter adapter) {
+            if (getScrollState() == SCROLL_STATE_IDLE && ViewCompat.isAttachedToWindow(SmartRecyclerView.this)) {
+                // 在下一帧的动画阶段（由Choreographer调度）统一发出
+                ViewCompat.postOnAnimation(SmartRecyclerView.this, flushNotificationsRunnable);
+            } else {
+                // 滑动时RecyclerView每一帧都会先处理数据变化，没有显示时也不需要等待下一帧
+                flushNotificationsRunnable.run();
             }
         }
-
-        @Override
-        public void onItemRangeMoved(int fromPosition, int toPosition, int itemCount) {
-            if (internalDataObserver != null) {
-                internalDataObserver.onItemRangeMoved(fromPosition, toPosition, itemCount);
-            }
-        }
-    }
+    };
+    private ArrayList<View> headerViews;
+    private ArrayList<View> footerViews;
+    private final LayoutInflater layoutInflater;
+    private Drawable divider;
+    private int dividerHeight;
+    /**
+     * The listener that receives notifications when an item is clicked.
+     */
+    private OnItemClickListener onItemClickListener;
+    /**
+     * The listener that receives notifications when an item is long clicked.
+     */
+    private OnItemLongClickListener onItemLongClickListener;
+    /**
+     * Detects clicks on items, added as an item touch listener when the first listener is set
+     */
+    private ItemClickDispatcher itemClickDispatcher;
+    private OnPrefetchListener onPrefetchListener;
+    /**
+     * Predicts the items that will be shown next, added as a scroll listener when a prefetch listener is set
+     */
+    private DataPrefetcher dataPrefetcher;
 
     /**
      * Interface definition for a callback to be invoked when an item in this
@@ -134,12 +151,66 @@ public class SmartRecyclerView extends RecyclerView {
          * @param parent   The RecyclerView where the click happened.
          * @param view     The view within the AdapterView that was clicked (this
          *                 will be a view provided by the adapter)
-         * @param position The position of the view in the adapter.
+         * @param position The position of the view in the adapter, headers excluded.
          * @param id       The row id of the item that was clicked.
          */
         void onItemClick(ViewGroup parent, View view, int position, long id);
     }
 
+    /**
+     * Interface definition for a callback to be invoked when an item in this
+     * view has been clicked and held.
+     */
+    public interface OnItemLongClickListener {
+        /**
+         * Callback method to be invoked when an item in this view has been
+         * clicked and held.
+         *
+         * @param parent   The RecyclerView where the click happened.
+         * @param view     The view within the RecyclerView that was clicked
+         * @param position The position of the view in the adapter, headers excluded.
+         * @param id       The row id of the item that was clicked.
+         * @return true if the callback consumed the long click, false otherwise
+         */
+        boolean onItemLongClick(ViewGroup parent, View view, int position, long id);
+    }
+
+    /**
+     * 定期接收滑动性能统计结果的回调
+     */
+    public interface OnScrollMetricsListener {
+        /**
+         * 在主线程中定期回调
+         *
+         * @param recyclerView 统计的RecyclerView
+         * @param snapshot     从开启统计或上次{@link ScrollMetrics#reset()}以来的统计结果
+         */
+        void onScrollMetrics(SmartRecyclerView recyclerView, ScrollMetrics.Snapshot snapshot);
+    }
+
+    /**
+     * 提前准备即将显示的item的数据的回调
+     * <p>位置都是不包含header的位置，在主线程中随滑动回调，实现中应该只提交后台任务，不要直接加载数据</p>
+     */
+    public interface OnPrefetchListener {
+        /**
+         * 这些item可能很快就会显示，可以开始加载数据。滑动越快范围越大，每个位置在取消之前只会通知一次
+         *
+         * @param positionStart 第一个item的位置
+         * @param itemCount     item的数量
+         */
+        void onPrefetch(int positionStart, int itemCount);
+
+        /**
+         * 之前通知的这些item不再可能很快显示，例如改变了滑动方向或者速度降低，可以取消还没有完成的加载。
+         * 已经显示出来的item不会被取消。插入、删除或移动item时会取消所有位置，只是内容变化时不会取消
+         *
+         * @param positionStart 第一个item的位置
+         * @param itemCount     item的数量
+         */
+        void onCancelPrefetch(int positionStart, int itemCount);
+    }
+
     public SmartRecyclerView(Context context) {
         this(context, null);
     }
@@ -183,22 +254,346 @@ public class SmartRecyclerView extends RecyclerView {
         typedArray.recycle();
     }
 
+    /**
+     * 设置Adapter
+     * <p>没有header view和footer view时也会进行包装，包装后的Adapter与此类共用header view和footer view的列表，
+     * 之后添加第一个header view或footer view时只需要通知插入的位置，不必重新设置Adapter。
+     * {@link #getAdapter()}返回的是包装后的Adapter</p>
+     *
+     * @param adapter 要显示的Adapter
+     */
     @Override
     public void setAdapter(Adapter adapter) {
-        if (internalAdapter != null && dataSetObserver != null) {
-            internalAdapter.unregisterAdapterDataObserver(dataSetObserver);
+        internalAdapter = adapter != null ? wrapHeaderListAdapterInternal(headerViews, footerViews, adapter) : null;
+        swapAdapterInternal();
+    }
+
+    /**
+     * 设置是否合并数据变化通知
+     * <p>开启后Adapter发出的通知会被保存到下一帧再一次性发出，相邻或重叠的范围会被合并，
+     * 适合短时间内频繁修改单个item的场景。列表正在滑动时通知仍然会立即发出</p>
+     * <p>开启后{@link #getAdapter()}返回的是包装后的Adapter</p>
+     *
+     * @param enabled 是否合并通知，默认为false
+     */
+    public void setNotificationBatchingEnabled(boolean enabled) {
+        if (notificationBatchingEnabled != enabled) {
+            notificationBatchingEnabled = enabled;
+            swapAdapterInternal();
+        }
+    }
+
+    public boolean isNotificationBatchingEnabled() {
+        return notificationBatchingEnabled;
+    }
+
+    /**
+     * 立即发出所有被合并而还没有发出的数据变化通知
+     * <p>在布局和滑动之前会自动调用，一般不需要手动调用</p>
+     */
+    public void flushPendingNotifications() {
+        if (batchingAdapter != null && batchingAdapter.hasPendingNotifications() && !isComputingLayout()) {
+            removeCallbacks(flushNotificationsRunnable);
+            batchingAdapter.flush();
+        }
+    }
+
+    /**
+     * 将{@link #internalAdapter}设置给RecyclerView，开启了合并通知时先进行包装
+     */
+    protected void swapAdapterInternal() {
+        if (viewHolderPrewarmer != null) {
+            viewHolderPrewarmer.cancel();
+        }
+        if (batchingAdapter != null) {
+            batchingAdapter.setCallback(null);
+            batchingAdapter = null;
+            removeCallbacks(flushNotificationsRunnable);
+        }
+        Adapter adapter = internalAdapter;
+        if (scrollMetrics != null && adapter != null) {
+            // 在合并通知的内层，统计的是真正发出的创建和绑定
+            adapter = new MetricsAdapter(getContext(), adapter, scrollMetrics);
         }
-        if (headerViews.size() > 0 || footerViews.size() > 0) {
-            internalAdapter = wrapHeaderListAdapterInternal(headerViews, footerViews, adapter);
+        if (notificationBatchingEnabled && adapter != null) {
+            batchingAdapter = new NotificationBatchingAdapter(adapter);
+            batchingAdapter.setCallback(batchingCallback);
+            super.swapAdapter(batchingAdapter, true);
         } else {
-            internalAdapter = adapter;
+            super.swapAdapter(adapter, true);
         }
-        if (internalAdapter != null) {
-            dataSetObserver = new InternalAdapterDataObserver();
-            internalAdapter.registerAdapterDataObserver(dataSetObserver);
+        if (dataPrefetcher != null) {
+            dataPrefetcher.setAdapter(getItemAdapter());
+        }
+    }
+
+    /**
+     * 设置是否统计滑动性能
+     * <p>开启后按view type统计创建和绑定ViewHolder的耗时分布、ItemDecoration绘制的耗时分布，
+     * 以及每一帧中创建和绑定的次数。统计本身不加锁也不分配内存，开启和关闭时会重新设置Adapter</p>
+     * <p>滑动时每一帧都会结束一帧的统计，停止时只统计有布局的帧</p>
+     *
+     * @param enabled 是否统计，默认为false
+     */
+    public void setScrollMetricsEnabled(boolean enabled) {
+        if (enabled == (scrollMetrics != null)) {
+            return;
+        }
+        scrollMetrics = enabled ? new ScrollMetrics() : null;
+        swapAdapterInternal();
+        removeCallbacks(reportMetricsRunnable);
+        removeCallbacks(frameTickRunnable);
+        frameTickScheduled = false;
+        scheduleMetricsReport();
+    }
+
+    private void scheduleFrameTick() {
+        if (scrollMetrics != null && !frameTickScheduled && ViewCompat.isAttachedToWindow(this)) {
+            frameTickScheduled = true;
+            ViewCompat.postOnAnimation(this, frameTickRunnable);
+        }
+    }
+
+    public boolean isScrollMetricsEnabled() {
+        return scrollMetrics != null;
+    }
+
+    /**
+     * 获取滑动性能统计，可以随时调用{@link ScrollMetrics#snapshot()}获取统计结果
+     *
+     * @return 没有开启统计时返回null
+     */
+    @Nullable
+    public ScrollMetrics getScrollMetrics() {
+        return scrollMetrics;
+    }
+
+    /**
+     * 设置定期接收统计结果的回调，只在开启了统计并且显示在窗口中时回调
+     *
+     * @param listener       回调，为null时不再回调
+     * @param intervalMillis 回调的间隔，单位为毫秒
+     */
+    public void setOnScrollMetricsListener(@Nullable OnScrollMetricsListener listener, long intervalMillis) {
+        if (listener != null && intervalMillis <= 0) {
+            throw new IllegalArgumentException("Interval must be positive: " + intervalMillis);
+        }
+        onScrollMetricsListener = listener;
+        scrollMetricsIntervalMillis = intervalMillis;
+        removeCallbacks(reportMetricsRunnable);
+        scheduleMetricsReport();
+    }
+
+    private void scheduleMetricsReport() {
+        if (scrollMetrics != null && onScrollMetricsListener != null && ViewCompat.isAttachedToWindow(this)) {
+            postDelayed(reportMetricsRunnable, scrollMetricsIntervalMillis);
+        }
+    }
+
+    /**
+     * 预先创建ViewHolder并放入{@link RecycledViewPool}，避免第一次显示时在主线程中创建所有item
+     * <p>Adapter实现了{@link BackgroundViewHolderFactory}时在后台线程中创建，否则在主线程空闲时逐个创建。
+     * 应该在设置Adapter之后、第一次布局之前调用。RecycledViewPool中此view type的容量会相应增加</p>
+     *
+     * @param viewType 要创建的view type
+     * @param count    要创建的数量
+     */
+    public void prewarmViewHolders(int viewType, int count) {
+        final Adapter adapter = getAdapter();
+        if (adapter == null) {
+            throw new IllegalStateException("Set an adapter before pre-warming view holders.");
+        }
+        if (viewHolderPrewarmer == null) {
+            viewHolderPrewarmer = new ViewHolderPrewarmer(this);
+        }
+        viewHolderPrewarmer.prewarm(adapter, viewType, count);
+    }
+
+    /**
+     * 获取预先创建的ViewHolder的数量
+     *
+     * @return 预先创建的数量
+     */
+    public int getPrewarmedViewHolderCount() {
+        return viewHolderPrewarmer == null ? 0 : viewHolderPrewarmer.getPrewarmedCount();
+    }
+
+    /**
+     * 获取预先创建并且已经显示过的ViewHolder的数量
+     *
+     * @return 预先创建并且已经显示过的数量
+     */
+    public int getUsedPrewarmedViewHolderCount() {
+        return viewHolderPrewarmer == null ? 0 : viewHolderPrewarmer.getUsedPrewarmedCount();
+    }
+
+    /**
+     * 获取第一次预先创建之后，RecyclerView在需要时才创建的ViewHolder的数量
+     *
+     * @return 需要时才创建的数量
+     */
+    public int getOnDemandViewHolderCount() {
+        return viewHolderPrewarmer == null ? 0 : viewHolderPrewarmer.getOnDemandCount();
+    }
+
+    /**
+     * 设置是否与其他使用相同Context的SmartRecyclerView共用一个{@link RecycledViewPool}
+     * <p>共用的pool由{@link RecycledViewPoolManager}统一限制内存占用。共用pool的Adapter中相同的view type必须可以使用相同的ViewHolder</p>
+     *
+     * @param enabled 是否共用，默认为false
+     */
+    public void setSharedRecycledViewPoolEnabled(boolean enabled) {
+        if (enabled == (sharedRecycledViewPool != null)) {
+            return;
+        }
+        if (enabled) {
+            sharedRecycledViewPool = RecycledViewPoolManager.getInstance(getContext()).getPool(getContext());
+            setRecycledViewPool(sharedRecycledViewPool);
+            if (ViewCompat.isAttachedToWindow(this)) {
+                sharedRecycledViewPool.acquire();
+            }
+        } else {
+            if (ViewCompat.isAttachedToWindow(this)) {
+                sharedRecycledViewPool.release();
+            }
+            sharedRecycledViewPool = null;
+            // RecyclerView会重新创建一个自己的pool
+            setRecycledViewPool(null);
+        }
+    }
+
+    public boolean isSharedRecycledViewPoolEnabled() {
+        return sharedRecycledViewPool != null;
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        if (sharedRecycledViewPool != null) {
+            sharedRecycledViewPool.acquire();
+        }
+        scheduleMetricsReport();
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        if (sharedRecycledViewPool != null) {
+            sharedRecycledViewPool.release();
+        }
+        removeCallbacks(reportMetricsRunnable);
+        removeCallbacks(frameTickRunnable);
+        frameTickScheduled = false;
+        if (dataPrefetcher != null) {
+            dataPrefetcher.cancelAll();
+        }
+    }
+
+    @Override
+    public void draw(Canvas c) {
+        if (scrollMetrics == null) {
+            super.draw(c);
+            return;
+        }
+        decorationsDrawn = false;
+        decorationDrawNanos = 0;
+        drawOverStartNanos = 0;
+        // RecyclerView.draw()在绘制完子view之后调用所有ItemDecoration.onDrawOver()，之后只有滚动条和边缘效果
+        super.draw(c);
+        if (decorationsDrawn) {
+            if (drawOverStartNanos != 0) {
+                decorationDrawNanos += System.nanoTime() - drawOverStartNanos;
+            }
+            scrollMetrics.recordDecorationDraw(decorationDrawNanos);
+        }
+    }
+
+    @Override
+    public void onDraw(Canvas c) {
+        if (scrollMetrics == null) {
+            super.onDraw(c);
+            return;
+        }
+        // RecyclerView.onDraw()只调用所有ItemDecoration.onDraw()，没有ItemDecoration时不会调用
+        final long start = System.nanoTime();
+        super.onDraw(c);
+        decorationDrawNanos += System.nanoTime() - start;
+        decorationsDrawn = true;
+    }
+
+    @Override
+    protected void dispatchDraw(Canvas c) {
+        super.dispatchDraw(c);
+        if (scrollMetrics != null) {
+            drawOverStartNanos = System.nanoTime();
+        }
+    }
+
+    @Override
+    public void onChildAttachedToWindow(View child) {
+        super.onChildAttachedToWindow(child);
+        if (viewHolderPrewarmer != null) {
+            viewHolderPrewarmer.onViewHolderAttached(getChildViewHolder(child));
         }
+    }
+
+    // RecyclerView在测量、布局和开始滑动时处理数据变化，此前必须先发出保存的通知
 
-        super.swapAdapter(internalAdapter, true);
+    @Override
+    protected void onMeasure(int widthSpec, int heightSpec) {
+        flushPendingNotifications();
+        super.onMeasure(widthSpec, heightSpec);
+    }
+
+    @Override
+    protected void onLayout(boolean changed, int l, int t, int r, int b) {
+        flushPendingNotifications();
+        super.onLayout(changed, l, t, r, b);
+        // 布局时的创建和绑定在下一帧开始时结束统计
+        scheduleFrameTick();
+    }
+
+    @Override
+    public void onScrollStateChanged(int state) {
+        flushPendingNotifications();
+        super.onScrollStateChanged(state);
+        scheduleFrameTick();
+    }
+
+    @Override
+    public void scrollBy(int x, int y) {
+        flushPendingNotifications();
+        super.scrollBy(x, y);
+    }
+
+    @Override
+    public void scrollToPosition(int position) {
+        flushPendingNotifications();
+        super.scrollToPosition(position);
+    }
+
+    @Override
+    public void smoothScrollBy(int dx, int dy) {
+        flushPendingNotifications();
+        super.smoothScrollBy(dx, dy);
+    }
+
+    @Override
+    public void smoothScrollToPosition(int position) {
+        flushPendingNotifications();
+        super.smoothScrollToPosition(position);
+    }
+
+    @Override
+    public boolean fling(int velocityX, int velocityY) {
+        flushPendingNotifications();
+        if (!super.fling(velocityX, velocityY)) {
+            return false;
+        }
+        if (dataPrefetcher != null) {
+            dataPrefetcher.onFling(velocityX, velocityY);
+        }
+        return true;
     }
 
     /**
@@ -238,11 +633,152 @@ public class SmartRecyclerView extends RecyclerView {
 
     /**
      * 设置item点击事件
+     * <p>点击由RecyclerView统一识别，item不需要设置自己的点击监听器。点击header view和footer view时不会回调</p>
      *
      * @param listener The callback that will be invoked.
      */
     public void setOnItemClickListener(@Nullable OnItemClickListener listener) {
         onItemClickListener = listener;
+        updateItemClickDispatcher();
+    }
+
+    @Nullable
+    public final OnItemClickListener getOnItemClickListener() {
+        return onItemClickListener;
+    }
+
+    /**
+     * 设置item长按事件
+     *
+     * @param listener The callback that will be invoked.
+     */
+    public void setOnItemLongClickListener(@Nullable OnItemLongClickListener listener) {
+        onItemLongClickListener = listener;
+        updateItemClickDispatcher();
+    }
+
+    @Nullable
+    public final OnItemLongClickListener getOnItemLongClickListener() {
+        return onItemLongClickListener;
+    }
+
+    private void updateItemClickDispatcher() {
+        if (onItemClickListener == null && onItemLongClickListener == null) {
+            if (itemClickDispatcher != null) {
+                removeOnItemTouchListener(itemClickDispatcher);
+                itemClickDispatcher = null;
+            }
+            return;
+        }
+        if (itemClickDispatcher == null) {
+            itemClickDispatcher = new ItemClickDispatcher(this);
+            addOnItemTouchListener(itemClickDispatcher);
+        }
+        itemClickDispatcher.setLongClickEnabled(onItemLongClickListener != null);
+    }
+
+    /**
+     * 设置提前准备数据的回调
+     * <p>根据滑动方向和速度通知接下来可能显示的item，fling时范围会变大，不再可能显示的item会被取消。
+     * 适合图片或者分页数据的预加载，与RecyclerView自带的预取不同，这里只通知位置，不会创建和绑定ViewHolder</p>
+     *
+     * @param listener 为null时取消之前通知的所有位置
+     */
+    public void setOnPrefetchListener(@Nullable OnPrefetchListener listener) {
+        if (onPrefetchListener == listener) {
+            return;
+        }
+        if (dataPrefetcher != null) {
+            dataPrefetcher.setAdapter(null);
+            removeOnScrollListener(dataPrefetcher);
+            dataPrefetcher = null;
+        }
+        onPrefetchListener = listener;
+        if (listener != null) {
+            dataPrefetcher = new DataPrefetcher(this, listener);
+            dataPrefetcher.setAdapter(getItemAdapter());
+            addOnScrollListener(dataPrefetcher);
+        }
+    }
+
+    @Nullable
+    public final OnPrefetchListener getOnPrefetchListener() {
+        return onPrefetchListener;
+    }
+
+    /**
+     * Call the OnItemClickListener, if it is defined.
+     *
+     * @param view     The view within the RecyclerView that was clicked.
+     * @param position The position of the view in the adapter, headers excluded.
+     * @param id       The row id of the item that was clicked.
+     * @return True if there was an assigned OnItemClickListener that was
+     * called, false otherwise is returned.
+     */
+    public boolean performItemClick(View view, int position, long id) {
+        if (onItemClickListener == null) {
+            return false;
+        }
+        playSoundEffect(SoundEffectConstants.CLICK);
+        onItemClickListener.onItemClick(this, view, position, id);
+        return true;
+    }
+
+    /**
+     * Call the OnItemLongClickListener, if it is defined.
+     *
+     * @param view     The view within the RecyclerView that was clicked and held.
+     * @param position The position of the view in the adapter, headers excluded.
+     * @param id       The row id of the item that was clicked and held.
+     * @return True if the listener consumed the long click.
+     */
+    public boolean performItemLongClick(View view, int position, long id) {
+        if (onItemLongClickListener == null || !onItemLongClickListener.onItemLongClick(this, view, position, id)) {
+            return false;
+        }
+        view.performHapticFeedback(HapticFeedbackConstants.LONG_PRESS);
+        return true;
+    }
+
+    boolean dispatchItemClick(View child) {
+        final int position = getItemPosition(child);
+        return position != NO_POSITION && performItemClick(child, position, getItemAdapter().getItemId(position));
+    }
+
+    boolean dispatchItemLongClick(View child) {
+        final int position = getItemPosition(child);
+        return position != NO_POSITION && performItemLongClick(child, position, getItemAdapter().getItemId(position));
+    }
+
+    /**
+     * 获取子view对应的item在设置的Adapter中的位置
+     *
+     * @param child 子view
+     * @return 不包含header的位置，子view是header view或footer view，或者数据变化之后还没有重新布局时返回{@link #NO_POSITION}
+     */
+    public int getItemPosition(View child) {
+        final int adapterPosition = getChildAdapterPosition(child);
+        return adapterPosition == NO_POSITION ? NO_POSITION : toItemPosition(adapterPosition);
+    }
+
+    /**
+     * 将RecyclerView中的位置转换为设置的Adapter中的位置
+     */
+    int toItemPosition(int adapterPosition) {
+        final Adapter itemAdapter = getItemAdapter();
+        if (itemAdapter == null) {
+            return NO_POSITION;
+        }
+        final int position = adapterPosition - headerViews.size();
+        return position >= 0 && position < itemAdapter.getItemCount() ? position : NO_POSITION;
+    }
+
+    /**
+     * 获取通过{@link #setAdapter(Adapter)}设置的Adapter，不包括添加header view和footer view时的包装
+     */
+    Adapter getItemAdapter() {
+        return internalAdapter instanceof WrapperAdapter
+                ? ((WrapperAdapter) internalAdapter).getWrappedAdapter() : internalAdapter;
     }
 
     public void addHeaderView(@LayoutRes int resId) {
@@ -250,25 +786,45 @@ public class SmartRecyclerView extends RecyclerView {
     }
 
     /**
-     * 添加一个view出现在列表的底部
-     * <p>注意：此方法需要在{@link #setAdapter(Adapter)}之前调用</p>
+     * 添加一个view出现在列表的顶部
+     * <p>设置Adapter之后添加时只会通知新插入的位置，不会刷新整个列表</p>
      *
      * @param view 要添加的view
      */
     public void addHeaderView(View view) {
-        headerViews.add(view);
-        // Wrap the adapter if it wasn't already wrapped.
-        if (internalAdapter != null) {
-            if (!(internalAdapter instanceof HeaderAndFooterWrapperAdapter)) {
-                wrapHeaderListAdapterInternal();
-            }
+        if (internalAdapter instanceof HeaderAndFooterWrapperAdapter) {
+            ((HeaderAndFooterWrapperAdapter) internalAdapter).addHeaderView(view);
+        } else {
+            headerViews.add(view);
+            notifyFixedViewsChanged();
+        }
+    }
 
-            // In the case of re-adding a header view, or adding one later on,
-            // we need to notify the observer.
-            if (dataSetObserver != null) {
-                dataSetObserver.onChanged();
-            }
+    /**
+     * 一次添加多个出现在列表顶部的view，只发出一次通知
+     *
+     * @param views 要添加的view
+     */
+    public void addHeaderViews(Collection<View> views) {
+        if (internalAdapter instanceof HeaderAndFooterWrapperAdapter) {
+            ((HeaderAndFooterWrapperAdapter) internalAdapter).addHeaderViews(views);
+        } else if (!views.isEmpty()) {
+            headerViews.addAll(views);
+            notifyFixedViewsChanged();
+        }
+    }
+
+    /**
+     * 移除一个header view
+     *
+     * @param view 要移除的view
+     * @return 是否移除了view
+     */
+    public boolean removeHeaderView(View view) {
+        if (internalAdapter instanceof HeaderAndFooterWrapperAdapter) {
+            return ((HeaderAndFooterWrapperAdapter) internalAdapter).removeHeaderView(view);
         }
+        return headerViews.remove(view);
     }
 
     public void addFooterView(@LayoutRes int resId) {
@@ -277,30 +833,70 @@ public class SmartRecyclerView extends RecyclerView {
 
     /**
      * 添加一个view出现在列表的底部
+     * <p>设置Adapter之后添加时只会通知新插入的位置，不会刷新整个列表</p>
      *
      * @param view 要添加的view
      */
     public void addFooterView(View view) {
-        footerViews.add(view);
-        // Wrap the adapter if it wasn't already wrapped.
-        if (internalAdapter != null) {
-            if (!(internalAdapter instanceof HeaderAndFooterWrapperAdapter)) {
-                wrapHeaderListAdapterInternal();
-            }
+        if (internalAdapter instanceof HeaderAndFooterWrapperAdapter) {
+            ((HeaderAndFooterWrapperAdapter) internalAdapter).addFooterView(view);
+        } else {
+            footerViews.add(view);
+            notifyFixedViewsChanged();
+        }
+    }
 
-            // In the case of re-adding a footer view, or adding one later on,
-            // we need to notify the observer.
-            if (dataSetObserver != null) {
-                dataSetObserver.onChanged();
-            }
+    /**
+     * 一次添加多个出现在列表底部的view，只发出一次通知
+     *
+     * @param views 要添加的view
+     */
+    public void addFooterViews(Collection<View> views) {
+        if (internalAdapter instanceof HeaderAndFooterWrapperAdapter) {
+            ((HeaderAndFooterWrapperAdapter) internalAdapter).addFooterViews(views);
+        } else if (!views.isEmpty()) {
+            footerViews.addAll(views);
+            notifyFixedViewsChanged();
+        }
+    }
+
+    /**
+     * 移除一个footer view
+     *
+     * @param view 要移除的view
+     * @return 是否移除了view
+     */
+    public boolean removeFooterView(View view) {
+        if (internalAdapter instanceof HeaderAndFooterWrapperAdapter) {
+            return ((HeaderAndFooterWrapperAdapter) internalAdapter).removeFooterView(view);
         }
+        return footerViews.remove(view);
+    }
+
+    public int getHeaderViewsCount() {
+        return headerViews.size();
+    }
+
+    public int getFooterViewsCount() {
+        return footerViews.size();
     }
 
     protected WrapperAdapter wrapHeaderListAdapterInternal(List<View> headerViews, List<View> footerViews, Adapter adapter) {
         return new HeaderAndFooterWrapperAdapter(getContext(), headerViews, footerViews, adapter);
     }
 
+    /**
+     * 子类通过{@link #wrapHeaderListAdapterInternal(List, List, Adapter)}返回了其他的包装Adapter时，
+     * 它同样共用header view和footer view的列表，但不知道变化的位置，只能刷新整个列表
+     */
+    private void notifyFixedViewsChanged() {
+        if (internalAdapter != null) {
+            internalAdapter.notifyDataSetChanged();
+        }
+    }
+
     protected void wrapHeaderListAdapterInternal() {
         internalAdapter = wrapHeaderListAdapterInternal(headerViews, footerViews, internalAdapter);
+        swapAdapterInternal();
     }
 }
\ No newline at end of file
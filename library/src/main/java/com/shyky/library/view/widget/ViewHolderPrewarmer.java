@@ -0,0 +1,193 @@
+package com.shyky.library.view.widget;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.MessageQueue;
+import android.support.annotation.MainThread;
+import android.support.annotation.NonNull;
+import android.support.v7.widget.RecyclerView;
+import android.util.Log;
+import android.util.SparseIntArray;
+
+import com.shyky.library.adapter.BackgroundViewHolderFactory;
+
+import java.util.WeakHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * 预先创建ViewHolder并放入{@link RecyclerView.RecycledViewPool}
+ * <p>Adapter实现了{@link BackgroundViewHolderFactory}时在后台线程中创建，创建失败（例如布局中的view需要Looper）时
+ * 剩下的ViewHolder改为在主线程空闲时逐个创建。同时统计预先创建的和RecyclerView在需要时才创建的ViewHolder的数量</p>
+ *
+ * @author Shyky
+ * @version 1.0
+ * @date 2026/10/18
+ * @since 1.3
+ */
+class ViewHolderPrewarmer {
+    private static final String TAG = "ViewHolderPrewarmer";
+    /**
+     * RecycledViewPool默认每个view type保存的ViewHolder数量
+     */
+    private static final int DEFAULT_MAX_SCRAP = 5;
+    private static ExecutorService sExecutor;
+
+    private final RecyclerView recyclerView;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    /**
+     * 每个view type请求预先创建的ViewHolder数量，用于提高RecycledViewPool的容量
+     */
+    private final SparseIntArray requestedCounts = new SparseIntArray();
+    /**
+     * 已经见过的ViewHolder，值表示是否是预先创建而还没有显示过的
+     */
+    private final WeakHashMap<RecyclerView.ViewHolder, Boolean> knownHolders = new WeakHashMap<>();
+    /**
+     * Adapter变化时加一，之前的任务创建的ViewHolder会被丢弃
+     */
+    private volatile int generation;
+    private int prewarmedCount;
+    private int usedPrewarmedCount;
+    private int onDemandCount;
+
+    ViewHolderPrewarmer(@NonNull RecyclerView recyclerView) {
+        this.recyclerView = recyclerView;
+    }
+
+    /**
+     * 预先创建ViewHolder
+     *
+     * @param adapter  设置给RecyclerView的Adapter
+     * @param viewType 要创建的view type
+     * @param count    要创建的数量
+     */
+    @MainThread
+    void prewarm(@NonNull RecyclerView.Adapter adapter, int viewType, int count) {
+        if (count <= 0) {
+            return;
+        }
+        final int requestedCount = requestedCounts.get(viewType) + count;
+        requestedCounts.put(viewType, requestedCount);
+        recyclerView.getRecycledViewPool().setMaxRecycledViews(viewType, DEFAULT_MAX_SCRAP + requestedCount);
+
+        if (adapter instanceof BackgroundViewHolderFactory
+                && ((BackgroundViewHolderFactory) adapter).canCreateViewHolderInBackground(viewType)) {
+            prewarmInBackground(adapter, viewType, count);
+        } else {
+            prewarmWhenIdle(adapter, viewType, count);
+        }
+    }
+
+    private void prewarmInBackground(final RecyclerView.Adapter adapter, final int viewType, final int count) {
+        final int taskGeneration = generation;
+        getExecutor().execute(new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < count; i++) {
+                    if (taskGeneration != generation) {
+                        return;
+                    }
+                    final RecyclerView.ViewHolder holder;
+                    try {
+                        holder = adapter.createViewHolder(recyclerView, viewType);
+                    } catch (RuntimeException e) {
+                        Log.w(TAG, "Failed to create view type " + viewType + " in background, using the main thread", e);
+                        final int remaining = count - i;
+                        mainHandler.post(new Runnable() {
+                            @Override
+                            public void run() {
+                                if (taskGeneration == generation) {
+                                    prewarmWhenIdle(adapter, viewType, remaining);
+                                }
+                            }
+                        });
+                        return;
+                    }
+                    mainHandler.post(new Runnable() {
+                        @Override
+                        public void run() {
+                            if (taskGeneration == generation) {
+                                putPrewarmed(holder);
+                            }
+                        }
+                    });
+                }
+            }
+        });
+    }
+
+    private void prewarmWhenIdle(final RecyclerView.Adapter adapter, final int viewType, final int count) {
+        final int taskGeneration = generation;
+        Looper.myQueue().addIdleHandler(new MessageQueue.IdleHandler() {
+            private int remaining = count;
+
+            @Override
+            public boolean queueIdle() {
+                if (taskGeneration != generation) {
+                    return false;
+                }
+                // 每次空闲时只创建一个，避免长时间占用主线程
+                putPrewarmed(adapter.createViewHolder(recyclerView, viewType));
+                return --remaining > 0;
+            }
+        });
+    }
+
+    private void putPrewarmed(RecyclerView.ViewHolder holder) {
+        knownHolders.put(holder, Boolean.TRUE);
+        prewarmedCount++;
+        recyclerView.getRecycledViewPool().putRecycledView(holder);
+    }
+
+    /**
+     * 在RecyclerView添加子view时调用，统计ViewHolder的来源
+     */
+    @MainThread
+    void onViewHolderAttached(@NonNull RecyclerView.ViewHolder holder) {
+        final Boolean prewarmed = knownHolders.get(holder);
+        if (prewarmed == null) {
+            onDemandCount++;
+            knownHolders.put(holder, Boolean.FALSE);
+        } else if (prewarmed) {
+            usedPrewarmedCount++;
+            knownHolders.put(holder, Boolean.FALSE);
+        }
+    }
+
+    /**
+     * 取消还没有完成的预先创建，在Adapter变化时调用
+     */
+    @MainThread
+    void cancel() {
+        generation++;
+        requestedCounts.clear();
+    }
+
+    int getPrewarmedCount() {
+        return prewarmedCount;
+    }
+
+    int getUsedPrewarmedCount() {
+        return usedPrewarmedCount;
+    }
+
+    int getOnDemandCount() {
+        return onDemandCount;
+    }
+
+    private static synchronized ExecutorService getExecutor() {
+        if (sExecutor == null) {
+            sExecutor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(@NonNull Runnable runnable) {
+                    final Thread thread = new Thread(runnable, TAG);
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+        return sExecutor;
+    }
+}
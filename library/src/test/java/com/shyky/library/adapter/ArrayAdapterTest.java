@@ -0,0 +1,158 @@
+package com.shyky.library.adapter;
+
+import android.support.v7.widget.RecyclerView;
+import android.widget.Filter;
+
+import com.shyky.library.BuildConfig;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * ArrayAdapter.submitList()的测试
+ * <p>计算差异的任务保存下来由测试手动执行，以便在计算完成之前修改列表。
+ * {@link CountTracker}按收到的通知推算RecyclerView看到的item数量，通知的范围和列表不一致时测试失败，
+ * 对应RecyclerView中的Inconsistency detected</p>
+ *
+ * @author Shyky
+ * @version 1.0
+ * @date 2026/10/18
+ * @since 1.3
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 25)
+public class ArrayAdapterTest {
+    private final List<Runnable> diffTasks = new ArrayList<>();
+    private ArrayAdapter<String> adapter;
+    private CountTracker tracker;
+
+    @Before
+    public void setUp() {
+        adapter = new ArrayAdapter<>(RuntimeEnvironment.application, android.R.layout.simple_list_item_1,
+                new ArrayList<>(Arrays.asList("apple", "avocado", "banana", "blueberry", "cherry")));
+        adapter.setDiffExecutor(new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                diffTasks.add(command);
+            }
+        });
+        tracker = new CountTracker(adapter.getItemCount());
+        adapter.registerAdapterDataObserver(tracker);
+    }
+
+    private void runDiffTasks() {
+        for (Runnable task : diffTasks) {
+            task.run();
+        }
+        diffTasks.clear();
+        ShadowLooper.idleMainLooper();
+    }
+
+    /**
+     * 在当前线程过滤并发布结果，Robolectric不会执行Filter的工作线程中的消息
+     */
+    private void filter(String prefix) throws Exception {
+        final Filter filter = adapter.getFilter();
+        final Method performFiltering = Filter.class.getDeclaredMethod("performFiltering", CharSequence.class);
+        // FilterResults是protected的，从performFiltering()的返回类型取得它的Class
+        final Method publishResults = Filter.class.getDeclaredMethod("publishResults", CharSequence.class, performFiltering.getReturnType());
+        performFiltering.setAccessible(true);
+        publishResults.setAccessible(true);
+        publishResults.invoke(filter, prefix, performFiltering.invoke(filter, prefix));
+    }
+
+    private void assertItems(String... items) {
+        assertEquals(items.length, adapter.getItemCount());
+        for (int i = 0; i < items.length; i++) {
+            assertEquals(items[i], adapter.getItem(i));
+        }
+        assertEquals(items.length, tracker.count);
+    }
+
+    @Test
+    public void submittedListDispatchesMinimalChanges() {
+        adapter.submitList(Arrays.asList("apple", "banana", "cherry", "date"));
+        runDiffTasks();
+        assertItems("apple", "banana", "cherry", "date");
+        assertEquals(0, tracker.changedCount);
+    }
+
+    @Test
+    public void filteringBeforeSubmittedListIsAppliedRefreshesTheList() throws Exception {
+        adapter.submitList(Arrays.asList("apple", "banana", "cherry", "date", "elderberry"));
+        filter("b");
+        assertItems("banana", "blueberry");
+        runDiffTasks();
+        assertItems("apple", "banana", "cherry", "date", "elderberry");
+        assertEquals(1, tracker.changedCount);
+    }
+
+    @Test
+    public void addingBeforeSubmittedListIsAppliedRefreshesTheList() {
+        adapter.submitList(Arrays.asList("apple", "banana", "cherry"));
+        adapter.add("date");
+        runDiffTasks();
+        assertItems("apple", "banana", "cherry");
+        assertEquals(1, tracker.changedCount);
+    }
+
+    /**
+     * 按收到的通知推算item数量，检查每个范围都在当前的数量之内
+     */
+    private class CountTracker extends RecyclerView.AdapterDataObserver {
+        int count;
+        int changedCount;
+
+        CountTracker(int count) {
+            this.count = count;
+        }
+
+        @Override
+        public void onChanged() {
+            count = adapter.getItemCount();
+            changedCount++;
+        }
+
+        @Override
+        public void onItemRangeChanged(int positionStart, int itemCount) {
+            assertTrue(positionStart >= 0 && positionStart + itemCount <= count);
+        }
+
+        @Override
+        public void onItemRangeChanged(int positionStart, int itemCount, Object payload) {
+            onItemRangeChanged(positionStart, itemCount);
+        }
+
+        @Override
+        public void onItemRangeInserted(int positionStart, int itemCount) {
+            assertTrue(positionStart >= 0 && positionStart <= count);
+            count += itemCount;
+        }
+
+        @Override
+        public void onItemRangeRemoved(int positionStart, int itemCount) {
+            assertTrue(positionStart >= 0 && positionStart + itemCount <= count);
+            count -= itemCount;
+        }
+
+        @Override
+        public void onItemRangeMoved(int fromPosition, int toPosition, int itemCount) {
+            assertTrue(fromPosition >= 0 && fromPosition + itemCount <= count);
+            assertTrue(toPosition >= 0 && toPosition + itemCount <= count);
+        }
+    }
+}
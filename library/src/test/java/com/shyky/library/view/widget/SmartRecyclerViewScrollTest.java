@@ -0,0 +1,339 @@
+package com.shyky.library.view.widget;
+
+import android.app.Activity;
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.support.v7.widget.RecyclerView;
+import android.view.View;
+import android.view.ViewGroup;
+
+import com.shyky.library.BuildConfig;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * SmartRecyclerView滑动和数据变化的回归测试
+ * <p>带header、footer和{@link DividerItemDecoration}的列表按脚本滑动、fling和修改数据，
+ * 检查绑定次数和内存分配是否超过预算。分配的内存在JVM上测量，包含Robolectric本身的开销，
+ * 预算只用于发现数量级上的退化，例如每次滑动都重新创建ViewHolder</p>
+ * <p>绑定次数的预算按列表的尺寸推算，每个有预算的测试都会输出实际的数值和预算，调整预算时以输出的数值为准</p>
+ *
+ * @author Shyky
+ * @version 1.0
+ * @date 2026/10/18
+ * @since 1.3
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 25)
+public class SmartRecyclerViewScrollTest {
+    private static final int WIDTH = 480;
+    private static final int HEIGHT = 800;
+    private static final int ITEM_HEIGHT = 100;
+    private static final int ITEM_COUNT = 1000;
+    private static final int HEADER_COUNT = 2;
+    private static final int SCROLL_STEP = 50;
+    private static final long FRAME_MILLIS = 16;
+    /**
+     * 每滑动1000px允许的绑定次数。scrollBy()不会触发GapWorker预取，新进入屏幕的item最多为1000 / ITEM_HEIGHT + 1个
+     * （两端各有一个部分可见），分割线只会使item更少。另外2次留给DataPrefetcher和布局时多绑定的item
+     */
+    private static final int MAX_BINDS_PER_1000PX = 1000 / ITEM_HEIGHT + 1 + 2;
+    /**
+     * 预热之后每滑动1000px允许分配的内存。Robolectric本身的分配无法推算，这个值只比每一帧都创建ViewHolder时的分配小
+     */
+    private static final long MAX_BYTES_PER_1000PX = 4 * 1024 * 1024;
+
+    private SmartRecyclerView recyclerView;
+    private CountingAdapter adapter;
+    private Canvas canvas;
+    private int scrolledPixels;
+
+    @Before
+    public void setUp() {
+        final Activity activity = Robolectric.setupActivity(Activity.class);
+        recyclerView = new SmartRecyclerView(activity);
+        recyclerView.setItemAnimator(null);
+        for (int i = 0; i < HEADER_COUNT; i++) {
+            recyclerView.addHeaderView(createFixedView(activity));
+        }
+        recyclerView.addFooterView(createFixedView(activity));
+        recyclerView.addItemDecoration(new DividerItemDecoration(activity, DividerItemDecoration.VERTICAL));
+        adapter = new CountingAdapter(ITEM_COUNT);
+        recyclerView.setAdapter(adapter);
+        recyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(RecyclerView recyclerView, int dx, int dy) {
+                scrolledPixels += Math.abs(dy);
+            }
+        });
+        // 窗口布局时也使用相同的大小
+        activity.setContentView(recyclerView, new ViewGroup.LayoutParams(WIDTH, HEIGHT));
+        canvas = new Canvas(Bitmap.createBitmap(WIDTH, HEIGHT, Bitmap.Config.ARGB_8888));
+        layoutAndDraw();
+    }
+
+    private static View createFixedView(Context context) {
+        final View view = new View(context);
+        view.setLayoutParams(new ViewGroup.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ITEM_HEIGHT));
+        return view;
+    }
+
+    private void layoutAndDraw() {
+        layoutAndDraw(recyclerView);
+    }
+
+    private void layoutAndDraw(RecyclerView recyclerView) {
+        recyclerView.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+        recyclerView.layout(0, 0, WIDTH, HEIGHT);
+        recyclerView.draw(canvas);
+    }
+
+    /**
+     * 输出实际的数值和预算
+     */
+    private static void report(String name, long observed, long budget) {
+        System.out.println(SmartRecyclerViewScrollTest.class.getSimpleName() + "." + name + ": " + observed + " / " + budget);
+    }
+
+    /**
+     * 以{@link #SCROLL_STEP}为一帧滑动指定距离，每一帧都绘制
+     */
+    private void scrollBy(int distance) {
+        for (int scrolled = 0; scrolled < distance; scrolled += SCROLL_STEP) {
+            recyclerView.scrollBy(0, SCROLL_STEP);
+            ShadowLooper.idleMainLooper(FRAME_MILLIS, TimeUnit.MILLISECONDS);
+            recyclerView.draw(canvas);
+        }
+    }
+
+    @Test
+    public void scrollBindsOnlyItemsThatComeIntoView() {
+        adapter.resetCounts();
+        scrollBy(1000);
+        report("bindsFor1000px", adapter.bindCount, MAX_BINDS_PER_1000PX);
+        assertTrue("Binds for 1000px: " + adapter.bindCount, adapter.bindCount <= MAX_BINDS_PER_1000PX);
+
+        // 往回滑动时刚离开屏幕的item可以直接从缓存中取回
+        adapter.resetCounts();
+        for (int scrolled = 0; scrolled < 1000; scrolled += SCROLL_STEP) {
+            recyclerView.scrollBy(0, -SCROLL_STEP);
+            ShadowLooper.idleMainLooper(FRAME_MILLIS, TimeUnit.MILLISECONDS);
+        }
+        report("bindsFor1000pxBack", adapter.bindCount, MAX_BINDS_PER_1000PX);
+        assertTrue("Binds for 1000px back: " + adapter.bindCount, adapter.bindCount <= MAX_BINDS_PER_1000PX);
+    }
+
+    @Test
+    public void flingBindsWithinBudget() {
+        adapter.resetCounts();
+        scrolledPixels = 0;
+        assertTrue(recyclerView.fling(0, recyclerView.getMaxFlingVelocity() / 2));
+        for (int frame = 0; frame < 600 && recyclerView.getScrollState() != RecyclerView.SCROLL_STATE_IDLE; frame++) {
+            ShadowLooper.idleMainLooper(FRAME_MILLIS, TimeUnit.MILLISECONDS);
+            recyclerView.draw(canvas);
+        }
+        assertEquals(RecyclerView.SCROLL_STATE_IDLE, recyclerView.getScrollState());
+        assertTrue(scrolledPixels > HEIGHT);
+        // fling时GapWorker每帧预取下一个item，显示时不会再绑定，停下时最多多绑定一个预取的item
+        final int budget = (int) ((long) scrolledPixels * MAX_BINDS_PER_1000PX / 1000) + MAX_BINDS_PER_1000PX;
+        report("bindsForFlingOf" + scrolledPixels + "px", adapter.bindCount, budget);
+        assertTrue("Binds for " + scrolledPixels + "px: " + adapter.bindCount, adapter.bindCount <= budget);
+    }
+
+    @Test
+    public void singleItemInsertBindsOnlyTheNewItem() {
+        adapter.resetCounts();
+        adapter.insert(3);
+        layoutAndDraw();
+        assertEquals(1, adapter.bindCount);
+    }
+
+    @Test
+    public void singleItemChangeBindsOnlyThatItem() {
+        adapter.resetCounts();
+        adapter.notifyItemChanged(2);
+        layoutAndDraw();
+        assertEquals(1, adapter.bindCount);
+    }
+
+    @Test
+    public void addingHeaderDoesNotRebindItems() {
+        adapter.resetCounts();
+        recyclerView.addHeaderView(createFixedView(recyclerView.getContext()));
+        layoutAndDraw();
+        assertEquals(0, adapter.bindCount);
+        assertEquals(HEADER_COUNT + 1, recyclerView.getHeaderViewsCount());
+    }
+
+    @Test
+    public void addingFirstHeaderAfterSetAdapterDoesNotRebindItems() {
+        // 设置Adapter时还没有header view和footer view
+        final Context context = recyclerView.getContext();
+        final SmartRecyclerView plainRecyclerView = new SmartRecyclerView(context);
+        plainRecyclerView.setItemAnimator(null);
+        final CountingAdapter plainAdapter = new CountingAdapter(ITEM_COUNT);
+        plainRecyclerView.setAdapter(plainAdapter);
+        layoutAndDraw(plainRecyclerView);
+
+        plainAdapter.resetCounts();
+        plainRecyclerView.addHeaderView(createFixedView(context));
+        plainRecyclerView.addFooterView(createFixedView(context));
+        layoutAndDraw(plainRecyclerView);
+        assertEquals(0, plainAdapter.createCount);
+        assertEquals(0, plainAdapter.bindCount);
+        assertEquals(1, plainRecyclerView.getHeaderViewsCount());
+        assertEquals(ITEM_COUNT + 2, plainRecyclerView.getAdapter().getItemCount());
+    }
+
+    @Test
+    public void batchedChangesBindEachItemOnce() {
+        recyclerView.setNotificationBatchingEnabled(true);
+        layoutAndDraw();
+        adapter.resetCounts();
+        for (int i = 0; i < 3; i++) {
+            adapter.notifyItemChanged(1);
+            adapter.notifyItemChanged(2);
+        }
+        layoutAndDraw();
+        assertEquals(2, adapter.bindCount);
+    }
+
+    @Test
+    public void batchedRemovalKeepsReportedCountUntilFlush() {
+        recyclerView.setNotificationBatchingEnabled(true);
+        layoutAndDraw();
+        final RecyclerView.Adapter wrapper = recyclerView.getAdapter();
+        final int count = wrapper.getItemCount();
+        // 暂停主线程，保存的通知不会在下一帧之前发出
+        ShadowLooper.pauseMainLooper();
+        try {
+            adapter.remove(5);
+            assertEquals(count, wrapper.getItemCount());
+            recyclerView.flushPendingNotifications();
+            assertEquals(count - 1, wrapper.getItemCount());
+        } finally {
+            ShadowLooper.unPauseMainLooper();
+        }
+    }
+
+    @Test
+    public void removingItemsDuringFlingBindsTheRightItems() {
+        recyclerView.setNotificationBatchingEnabled(true);
+        layoutAndDraw();
+        assertTrue(recyclerView.fling(0, recyclerView.getMaxFlingVelocity() / 2));
+        int removed = 0;
+        for (int frame = 0; frame < 600 && recyclerView.getScrollState() != RecyclerView.SCROLL_STATE_IDLE; frame++) {
+            if (frame % 3 == 0) {
+                // 删除屏幕中间的item，RecyclerView在下一帧中才会处理
+                final int position = recyclerView.getItemPosition(recyclerView.getChildAt(recyclerView.getChildCount() / 2));
+                if (position != RecyclerView.NO_POSITION) {
+                    adapter.remove(position);
+                    removed++;
+                }
+            }
+            ShadowLooper.idleMainLooper(FRAME_MILLIS, TimeUnit.MILLISECONDS);
+            recyclerView.draw(canvas);
+        }
+        assertEquals(RecyclerView.SCROLL_STATE_IDLE, recyclerView.getScrollState());
+        assertTrue(removed > 0);
+        layoutAndDraw();
+
+        assertEquals(HEADER_COUNT + ITEM_COUNT - removed + 1, recyclerView.getAdapter().getItemCount());
+        for (int i = 0; i < recyclerView.getChildCount(); i++) {
+            final View child = recyclerView.getChildAt(i);
+            final int position = recyclerView.getItemPosition(child);
+            if (position != RecyclerView.NO_POSITION) {
+                assertEquals(adapter.getItem(position), child.getTag());
+            }
+        }
+    }
+
+    @Test
+    public void scrollAllocatesWithinBudget() {
+        final java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        final com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) bean;
+        assumeTrue(threadBean.isThreadAllocatedMemorySupported() && threadBean.isThreadAllocatedMemoryEnabled());
+
+        // 先滑动一段距离，使RecycledViewPool和各处的缓存都已经创建
+        scrollBy(2000);
+        final long threadId = Thread.currentThread().getId();
+        final long before = threadBean.getThreadAllocatedBytes(threadId);
+        scrollBy(1000);
+        final long allocated = threadBean.getThreadAllocatedBytes(threadId) - before;
+        report("bytesFor1000px", allocated, MAX_BYTES_PER_1000PX);
+        assertTrue("Allocated for 1000px: " + allocated, allocated <= MAX_BYTES_PER_1000PX);
+    }
+
+    /**
+     * 统计创建和绑定次数的Adapter，每个item的高度相同，绑定时将item保存到view的tag中
+     */
+    private static class CountingAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
+        private final List<Integer> items = new ArrayList<>();
+        private int nextItem;
+        int createCount;
+        int bindCount;
+
+        CountingAdapter(int itemCount) {
+            while (nextItem < itemCount) {
+                items.add(nextItem++);
+            }
+        }
+
+        Integer getItem(int position) {
+            return items.get(position);
+        }
+
+        void resetCounts() {
+            createCount = 0;
+            bindCount = 0;
+        }
+
+        void insert(int position) {
+            items.add(position, nextItem++);
+            notifyItemInserted(position);
+        }
+
+        void remove(int position) {
+            items.remove(position);
+            notifyItemRemoved(position);
+        }
+
+        @Override
+        public RecyclerView.ViewHolder onCreateViewHolder(ViewGroup parent, int viewType) {
+            createCount++;
+            final View view = new View(parent.getContext());
+            view.setLayoutParams(new RecyclerView.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ITEM_HEIGHT));
+            return new RecyclerView.ViewHolder(view) {
+            };
+        }
+
+        @Override
+        public void onBindViewHolder(RecyclerView.ViewHolder holder, int position) {
+            bindCount++;
+            holder.itemView.setTag(items.get(position));
+        }
+
+        @Override
+        public int getItemCount() {
+            return items.size();
+        }
+    }
+}